@@ -0,0 +1,120 @@
+package com.saiduokamara.portfolio.benchmark;
+
+import com.saiduokamara.portfolio.ProjectApplication;
+import com.saiduokamara.portfolio.filter.JwtAuthenticationFilter;
+import com.saiduokamara.portfolio.metrics.AuthMetrics;
+import com.saiduokamara.portfolio.model.service.TokenRevocationService;
+import com.saiduokamara.portfolio.util.JwtKeyRing;
+import com.saiduokamara.portfolio.util.JwtTokenCache;
+import com.saiduokamara.portfolio.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+final class BenchmarkSupport {
+
+    private static final String JWT_SECRET = "benchmark-signing-secret-that-is-at-least-256-bits-long";
+
+    // signing_keys for the JWT benchmarks; stopped by its shutdown hook when the fork exits
+    private static EmbeddedPostgres signingKeyDatabase;
+
+    private BenchmarkSupport() {
+    }
+
+    // Builds a JwtUtil the same way Spring does: field injection followed by @PostConstruct.
+    // The key ring starts up as in the application, creating its first ES256 key in signing_keys
+    // on an embedded Postgres; it is not refreshed afterwards, so signing never touches the database.
+    static JwtUtil jwtUtil() {
+        DataSource dataSource = signingKeyDatabase();
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(keyRing, "tokenLifetimeMillis", 900000L);
+        ReflectionTestUtils.setField(keyRing, "rotationPeriodMillis", 604800000L);
+        ReflectionTestUtils.setField(keyRing, "publishAheadMillis", 3600000L);
+        ReflectionTestUtils.setField(keyRing, "jdbcTemplate", new JdbcTemplate(dataSource));
+        ReflectionTestUtils.setField(keyRing, "transactionManager", new DataSourceTransactionManager(dataSource));
+        keyRing.afterSingletonsInstantiated();
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    static JwtTokenCache jwtTokenCache(boolean enabled) {
+        JwtTokenCache tokenCache = new JwtTokenCache();
+        ReflectionTestUtils.setField(tokenCache, "enabled", enabled);
+        ReflectionTestUtils.setField(tokenCache, "maximumSize", 10000L);
+        ReflectionTestUtils.setField(tokenCache, "maxTtlSeconds", 300L);
+        ReflectionTestUtils.setField(tokenCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(tokenCache, "init");
+        return tokenCache;
+    }
+
+    static AuthMetrics authMetrics() {
+        AuthMetrics authMetrics = new AuthMetrics();
+        ReflectionTestUtils.setField(authMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(authMetrics, "init");
+        return authMetrics;
+    }
+
+    static JwtAuthenticationFilter jwtAuthenticationFilter(JwtUtil jwtUtil, JwtTokenCache tokenCache) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "tokenCache", tokenCache);
+        ReflectionTestUtils.setField(filter, "authMetrics", authMetrics());
+        // Nothing revoked: measures the lookup every authenticated request pays
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", new TokenRevocationService());
+        return filter;
+    }
+
+    // The whole application on an embedded Postgres migrated by Flyway, for benchmarks that go through
+    // the real repositories and services. Mail is never delivered and the rate limits are off.
+    static ConfigurableApplicationContext bootApplication(EmbeddedPostgres postgres) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("DATABASE_URL", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("DATABASE_USERNAME", "postgres");
+        properties.put("DATABASE_PASSWORD", "postgres");
+        properties.put("SPRING_MAIL_USERNAME", "benchmark@localhost");
+        properties.put("SPRING_MAIL_PASSWORD", "unused");
+        properties.put("GOOGLE_CLIENT_ID", "benchmark");
+        properties.put("GOOGLE_CLIENT_SECRET", "benchmark");
+        properties.put("GITHUB_CLIENT_ID", "benchmark");
+        properties.put("GITHUB_CLIENT_SECRET", "benchmark");
+        properties.put("JWT_SECRET", JWT_SECRET);
+        properties.put("PORT", 0);
+        properties.put("app.mail.dispatcher.interval-ms", 3600000);
+        properties.put("app.rate-limit.enabled", false);
+        properties.put("logging.level.com.saiduokamara.portfolio", "WARN");
+        return new SpringApplicationBuilder(ProjectApplication.class)
+                .properties(properties)
+                .run();
+    }
+
+    private static synchronized DataSource signingKeyDatabase() {
+        if (signingKeyDatabase == null) {
+            try {
+                signingKeyDatabase = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Flyway.configure()
+                    .dataSource(signingKeyDatabase.getPostgresDatabase())
+                    .locations("classpath:db/migration/postgresql")
+                    .load()
+                    .migrate();
+        }
+        return signingKeyDatabase.getPostgresDatabase();
+    }
+}
@@ -0,0 +1,62 @@
+package com.saiduokamara.portfolio.benchmark;
+
+import com.saiduokamara.portfolio.filter.JwtAuthenticationFilter;
+import com.saiduokamara.portfolio.util.JwtUtil;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole filter step for one request carrying a bearer token: header parsing, cache lookup or
+ * signature check, and building the Authentication. The chain is a no-op, so nothing downstream counts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    // MockFilterChain refuses to run twice, so use a reusable no-op chain
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = BenchmarkSupport.jwtUtil();
+        filter = BenchmarkSupport.jwtAuthenticationFilter(jwtUtil, BenchmarkSupport.jwtTokenCache(cacheEnabled));
+
+        request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("bench@example.com", "USER"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        // The filter only authenticates when the context is empty, as it is at the start of a real request
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,40 @@
+package com.saiduokamara.portfolio.benchmark;
+
+import com.saiduokamara.portfolio.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token issuance on login and refresh. Verification, through parseToken as the filter and
+ * controllers do it, is measured in JwtVerificationBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtIssueBenchmark {
+
+    private JwtUtil jwtUtil;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkSupport.jwtUtil();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bench@example.com", "USER");
+    }
+}
@@ -0,0 +1,62 @@
+package com.saiduokamara.portfolio.benchmark;
+
+import com.saiduokamara.portfolio.util.JwtPrincipal;
+import com.saiduokamara.portfolio.util.JwtTokenCache;
+import com.saiduokamara.portfolio.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeated verification of the same bearer token, as an SPA session does, with the
+ * verified-token cache on and off. Sample mode reports p50/p99/p999 per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JwtTokenCacheBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private JwtUtil jwtUtil;
+    private JwtTokenCache tokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkSupport.jwtUtil();
+        tokenCache = BenchmarkSupport.jwtTokenCache(cacheEnabled);
+        token = jwtUtil.generateToken("bench@example.com", "ADMIN");
+    }
+
+    // Same lookup-then-verify sequence as JwtAuthenticationFilter
+    @Benchmark
+    public JwtTokenCache.Entry authenticate() {
+        JwtTokenCache.Entry entry = tokenCache.get(token);
+        if (entry == null) {
+            JwtPrincipal principal = jwtUtil.parseToken(token);
+            entry = new JwtTokenCache.Entry(principal,
+                    List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())));
+            tokenCache.put(token, entry);
+        }
+        return entry;
+    }
+}
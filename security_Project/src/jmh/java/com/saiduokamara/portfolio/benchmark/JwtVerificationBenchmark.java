@@ -0,0 +1,71 @@
+package com.saiduokamara.portfolio.benchmark;
+
+import com.saiduokamara.portfolio.util.JwtPrincipal;
+import com.saiduokamara.portfolio.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification cost of one authenticated request. Run with the gc profiler
+ * (enabled in build.gradle) to get gc.alloc.rate.norm, i.e. bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String HMAC_SECRET = "benchmarkSecretKey123456789012345678901234567890";
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private JwtParser hmacParser;
+    private String hmacToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkSupport.jwtUtil();
+        token = jwtUtil.generateToken("bench@example.com", "USER");
+
+        SecretKey hmacKey = Keys.hmacShaKeyFor(HMAC_SECRET.getBytes());
+        hmacParser = Jwts.parserBuilder().setSigningKey(hmacKey).build();
+        hmacToken = Jwts.builder()
+                .claim("role", "USER")
+                .setSubject("bench@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 900000))
+                .signWith(hmacKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    // ES256, key picked by kid from the in-memory key ring
+    @Benchmark
+    public JwtPrincipal verifiedPrincipal() {
+        return jwtUtil.parseToken(token);
+    }
+
+    // The previous shared-secret HS256 verification, for the cost of moving to asymmetric keys
+    @Benchmark
+    public Claims hs256Baseline() {
+        return hmacParser.parseClaimsJws(hmacToken).getBody();
+    }
+}
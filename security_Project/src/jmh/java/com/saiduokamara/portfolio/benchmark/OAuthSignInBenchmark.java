@@ -0,0 +1,76 @@
+package com.saiduokamara.portfolio.benchmark;
+
+import com.saiduokamara.portfolio.model.domain.User;
+import com.saiduokamara.portfolio.model.service.UserService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A first OAuth sign-in through UserService against the booted application and a migrated embedded
+ * Postgres. The old path pushed a throwaway random password through registerUser (BCrypt, user insert,
+ * verification token, outbox email); the federated path is the upsert in FederatedIdentityRepository.
+ * returningFederated is the later sign-ins, a single findLinkedUser read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OAuthSignInBenchmark {
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext app;
+    private UserService userService;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        app = BenchmarkSupport.bootApplication(postgres);
+        userService = app.getBean(UserService.class);
+        userService.registerOAuthUser("github", "returning", "returning@example.com", "Returning User");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        app.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public User legacyRandomPasswordPath() {
+        long n = counter++;
+        return userService.registerUser(new User("legacy-" + n + "@example.com", "OAuth User " + n,
+                UUID.randomUUID().toString(), "USER"));
+    }
+
+    @Benchmark
+    public void firstFederatedSignIn(Blackhole blackhole) {
+        long n = counter++;
+        blackhole.consume(userService.registerOAuthUser("github", "subject-" + n,
+                "federated-" + n + "@example.com", "OAuth User " + n));
+    }
+
+    @Benchmark
+    public void returningFederated(Blackhole blackhole) {
+        blackhole.consume(userService.registerOAuthUser("github", "returning", "returning@example.com", "Returning User"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.saiduokamara.portfolio.benchmark;
+
+import com.saiduokamara.portfolio.model.dao.UserRepository;
+import com.saiduokamara.portfolio.model.domain.User;
+import com.saiduokamara.portfolio.model.dto.UserResponse;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Role-scoped admin listing through UserRepository on the booted application and an embedded Postgres
+ * migrated by Flyway (so with the V3 indexes), seeded with 1M users of which 1% are admins: the old
+ * findAll-then-filter-in-Java approach versus findPageByRole, one page of projections plus its count query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RoleQueryBenchmark {
+
+    @Param("1000000")
+    public int rows;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext app;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void seed() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        app = BenchmarkSupport.bootApplication(postgres);
+        userRepository = app.getBean(UserRepository.class);
+
+        JdbcTemplate jdbcTemplate = app.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO users (email, full_name, password, role, is_enabled, created_at, updated_at)
+                SELECT 'user' || n || '@example.com', 'User ' || n,
+                       '{bcrypt}$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ012',
+                       CASE WHEN n % 100 = 0 THEN 'ADMIN' ELSE 'USER' END, TRUE,
+                       TIMESTAMP '2024-01-01' + n * INTERVAL '1 second', TIMESTAMP '2024-01-01'
+                FROM generate_series(1, ?) AS n
+                """, rows);
+        jdbcTemplate.execute("VACUUM ANALYZE users");
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        app.close();
+        postgres.close();
+    }
+
+    // Previous UserService.findUsersByRole: hydrate every user, filter in a stream
+    @Benchmark
+    public List<User> fullTableThenFilter() {
+        return userRepository.findAll().stream()
+                .filter(user -> "ADMIN".equals(user.getRole()))
+                .toList();
+    }
+
+    @Benchmark
+    public Page<UserResponse> indexedPage() {
+        return userRepository.findPageByRole("ADMIN", PageRequest.of(0, 50, Sort.by("id")));
+    }
+}
@@ -0,0 +1,175 @@
+package com.saiduokamara.portfolio.benchmark;
+
+import com.saiduokamara.portfolio.model.domain.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of inserting users into a migrated embedded Postgres, issuing the statements Hibernate
+ * does. Before: IDENTITY ids (users_identity, the pre-V10 column), so every INSERT runs on its own and
+ * returns its key. After: ids from users_id_seq in pooled blocks of 50 and inserts sent as one JDBC batch,
+ * which the driver rewrites into multi-row INSERTs. Registration commits one user at a time; bulk
+ * commits BULK_ROWS per transaction as the import does. Scores are per user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserInsertBenchmark {
+
+    private static final int BULK_ROWS = 500;
+    private static final String HASH = "{bcrypt}$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ012";
+
+    private EmbeddedPostgres postgres;
+    private Connection connection;
+    private long emailCounter;
+
+    // Pooled optimizer state for the registration path: ids left in the current block
+    private long nextId;
+    private long blockEnd = -1;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration/postgresql")
+                .load()
+                .migrate();
+        connection = postgres.getDatabase("postgres", "postgres", Map.of("reWriteBatchedInserts", "true"))
+                .getConnection();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users_identity (LIKE users INCLUDING CONSTRAINTS)");
+            statement.execute("ALTER TABLE users_identity ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY");
+            statement.execute("ALTER TABLE users_identity ADD PRIMARY KEY (id), ADD UNIQUE (email)");
+        }
+        connection.commit();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE users, users_identity CASCADE");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException, SQLException {
+        connection.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public void registrationIdentity(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users_identity (email, full_name, password, role, is_enabled, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, 'USER', FALSE, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            bind(insert, 1);
+            insert.executeUpdate();
+            blackhole.consume(generatedKey(insert));
+        }
+        connection.commit();
+    }
+
+    // One sequence round trip per 50 registrations instead of a key read-back per insert
+    @Benchmark
+    public void registrationPooledSequence() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (id, email, full_name, password, role, is_enabled, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, 'USER', FALSE, ?, ?)")) {
+            insert.setLong(1, nextPooledId());
+            bind(insert, 2);
+            insert.executeUpdate();
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_ROWS)
+    public void bulkIdentity(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users_identity (email, full_name, password, role, is_enabled, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, 'USER', FALSE, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < BULK_ROWS; i++) {
+                bind(insert, 1);
+                insert.executeUpdate();
+                blackhole.consume(generatedKey(insert));
+            }
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_ROWS)
+    public void bulkPooledSequenceBatched(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (id, email, full_name, password, role, is_enabled, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, 'USER', FALSE, ?, ?)")) {
+            for (int i = 0; i < BULK_ROWS; i++) {
+                insert.setLong(1, nextPooledId());
+                bind(insert, 2);
+                insert.addBatch();
+            }
+            blackhole.consume(insert.executeBatch());
+        }
+        connection.commit();
+    }
+
+    private void bind(PreparedStatement insert, int first) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long n = emailCounter++;
+        insert.setString(first, "bench-" + n + "@example.com");
+        insert.setString(first + 1, "Bench User " + n);
+        insert.setString(first + 2, HASH);
+        insert.setTimestamp(first + 3, now);
+        insert.setTimestamp(first + 4, now);
+    }
+
+    private long nextPooledId() throws SQLException {
+        if (nextId > blockEnd) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT nextval('users_id_seq')")) {
+                rs.next();
+                blockEnd = rs.getLong(1);
+                nextId = blockEnd - User.ID_ALLOCATION_SIZE + 1;
+            }
+        }
+        return nextId++;
+    }
+
+    private static long generatedKey(PreparedStatement insert) throws SQLException {
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+}
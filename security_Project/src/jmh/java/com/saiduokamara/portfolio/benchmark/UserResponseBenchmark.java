@@ -0,0 +1,75 @@
+package com.saiduokamara.portfolio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saiduokamara.portfolio.model.domain.User;
+import com.saiduokamara.portfolio.model.dto.UserResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion and JSON serialization for a single user and a default-sized page,
+ * using an ObjectMapper configured the way Spring Boot configures the MVC one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserResponseBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ObjectMapper objectMapper;
+    private User user;
+    private List<User> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            User u = new User();
+            u.setId((long) i);
+            u.setFullName("Bench User " + i);
+            u.setEmail("bench" + i + "@example.com");
+            u.setRole("USER");
+            u.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+            page.add(u);
+        }
+        user = page.get(0);
+    }
+
+    @Benchmark
+    public UserResponse convert() {
+        return UserResponse.from(user);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(UserResponse.from(user));
+    }
+
+    @Benchmark
+    public byte[] convertAndSerializePage() throws Exception {
+        List<UserResponse> responses = new ArrayList<>(page.size());
+        for (User u : page) {
+            responses.add(UserResponse.from(u));
+        }
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
@@ -0,0 +1,275 @@
+package com.saiduokamara.portfolio.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.store.MailFolder;
+import com.icegreen.greenmail.store.StoredMessage;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The scripted auth workload. Each flow is picked by the configured mix:
+ * <ul>
+ *   <li>signup - register a fresh account, wait for the verification mail, verify, log in a few times</li>
+ *   <li>session - log in as a seeded account and make authenticated reads with the token</li>
+ *   <li>reset - forgot-password on a seeded account, wait for the mail, reset, log in with the new password</li>
+ * </ul>
+ * Flows either loop per user (closed model) or arrive at a fixed rate (open model), in which case
+ * arrivals that find every user busy are counted as dropped rather than queued, so a saturated
+ * server shows up as drops and not as a silently lower offered load.
+ * Steps are recorded separately so a regression can be pinned to one endpoint.
+ */
+public class AuthFlowScenario {
+
+    private static final Pattern VERIFY_TOKEN = Pattern.compile("/email-verification\\?token=([A-Za-z0-9_-]+)");
+    private static final Pattern RESET_TOKEN = Pattern.compile("/reset-password\\?token=([A-Za-z0-9_-]+)");
+    private static final Duration MAIL_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final String mode;
+    private final GreenMail smtp;
+    private final LoadTestOptions options;
+    private final UserSeeder.SeededUsers seeded;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger signups = new AtomicInteger();
+    private final AtomicInteger resets = new AtomicInteger();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public AuthFlowScenario(int port, String mode, GreenMail smtp, LoadTestOptions options, UserSeeder.SeededUsers seeded) {
+        this.baseUrl = "http://127.0.0.1:" + port;
+        this.mode = mode;
+        this.smtp = smtp;
+        this.options = options;
+        this.seeded = seeded;
+    }
+
+    public LatencyRecorder run() throws InterruptedException {
+        long warmupEnds = System.nanoTime() + options.warmup().toNanos();
+        long ends = warmupEnds + options.duration().toNanos();
+
+        ExecutorService users = Executors.newFixedThreadPool(options.users());
+        ScheduledExecutorService arrivals = null;
+        if (options.rate() > 0) {
+            arrivals = Executors.newSingleThreadScheduledExecutor();
+            Semaphore idleUsers = new Semaphore(options.users());
+            arrivals.scheduleAtFixedRate(() -> {
+                if (!idleUsers.tryAcquire()) {
+                    dropped.increment();
+                    return;
+                }
+                users.submit(() -> {
+                    try {
+                        runFlow();
+                    } finally {
+                        idleUsers.release();
+                    }
+                });
+            }, 0, (long) (TimeUnit.SECONDS.toNanos(1) / options.rate()), TimeUnit.NANOSECONDS);
+        } else {
+            for (int i = 0; i < options.users(); i++) {
+                users.submit(() -> {
+                    while (System.nanoTime() < ends && !Thread.currentThread().isInterrupted()) {
+                        runFlow();
+                    }
+                });
+            }
+        }
+
+        TimeUnit.NANOSECONDS.sleep(warmupEnds - System.nanoTime());
+        recorder.reset();
+        dropped.reset();
+        TimeUnit.NANOSECONDS.sleep(ends - System.nanoTime());
+
+        if (arrivals != null) {
+            arrivals.shutdownNow();
+        }
+        users.shutdown();
+        if (!users.awaitTermination(MAIL_TIMEOUT.toSeconds() + 60, TimeUnit.SECONDS)) {
+            users.shutdownNow();
+        }
+        return recorder;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    private void runFlow() {
+        int[] mix = options.mix();
+        int pick = ThreadLocalRandom.current().nextInt(mix[0] + mix[1] + mix[2]);
+        try {
+            if (pick < mix[0]) {
+                signup();
+            } else if (pick < mix[0] + mix[1]) {
+                session();
+            } else {
+                reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            recorder.record("unexpected", System.nanoTime(), false);
+        }
+    }
+
+    private void signup() throws Exception {
+        String email = mode + "-signup-" + signups.incrementAndGet() + "@loadtest.local";
+
+        long start = System.nanoTime();
+        HttpResponse<String> registered = post("/api/auth/register",
+                Map.of("fullName", "Load Test", "email", email, "password", UserSeeder.PASSWORD), null);
+        recorder.record("register", start, isOk(registered));
+        if (!isOk(registered)) {
+            return;
+        }
+
+        start = System.nanoTime();
+        String token = awaitToken(email, VERIFY_TOKEN);
+        recorder.record("verify-mail", start, token != null);
+        if (token == null) {
+            return;
+        }
+
+        start = System.nanoTime();
+        HttpResponse<String> verified = get("/api/auth/verify?token=" + token, null);
+        recorder.record("verify", start, isOk(verified));
+        if (!isOk(verified)) {
+            return;
+        }
+
+        for (int i = 0; i < options.loginsPerUser(); i++) {
+            login(email, UserSeeder.PASSWORD);
+        }
+    }
+
+    private void session() throws Exception {
+        List<UserSeeder.Account> accounts = seeded.sessionAccounts();
+        UserSeeder.Account account = accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+
+        String token = login(account.email(), account.password());
+        if (token == null) {
+            return;
+        }
+        for (int i = 0; i < options.readsPerSession(); i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> read = i % 2 == 0
+                    ? get("/api/users/" + account.id(), token)
+                    : get("/api/users?limit=20", token);
+            recorder.record(i % 2 == 0 ? "read-user" : "read-page", start, isOk(read));
+        }
+    }
+
+    private void reset() throws Exception {
+        UserSeeder.Account account = seeded.resetAccounts().poll();
+        if (account == null) {
+            // Every reset account is mid-flow; more concurrent resets than accounts is a configuration problem
+            recorder.record("reset-starved", System.nanoTime(), false);
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            HttpResponse<String> requested = post("/api/auth/forgot-password", Map.of("email", account.email()), null);
+            recorder.record("forgot-password", start, isOk(requested));
+            if (!isOk(requested)) {
+                return;
+            }
+
+            start = System.nanoTime();
+            String token = awaitToken(account.email(), RESET_TOKEN);
+            recorder.record("reset-mail", start, token != null);
+            if (token == null) {
+                return;
+            }
+
+            String password = "Reset#" + resets.incrementAndGet();
+            start = System.nanoTime();
+            HttpResponse<String> changed = post("/api/auth/reset-password", Map.of("token", token, "newPassword", password), null);
+            recorder.record("reset-password", start, isOk(changed));
+            if (isOk(changed)) {
+                account = new UserSeeder.Account(account.id(), account.email(), password);
+                login(account.email(), password);
+            }
+        } finally {
+            seeded.resetAccounts().add(account);
+        }
+    }
+
+    private String login(String email, String password) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> login = post("/api/auth/login", Map.of("email", email, "password", password), null);
+        recorder.record("login", start, isOk(login));
+        if (!isOk(login)) {
+            return null;
+        }
+        JsonNode token = objectMapper.readTree(login.body()).get("token");
+        return token == null ? null : token.asText();
+    }
+
+    /**
+     * Waits for the next mail to this recipient and takes the token out of the link matching the pattern.
+     * GreenMail keeps one inbox per recipient, so this is a map lookup rather than a scan of every message;
+     * the inbox is emptied afterwards so a later flow on the same account only sees its own mail.
+     */
+    private String awaitToken(String email, Pattern link) throws Exception {
+        long deadline = System.nanoTime() + MAIL_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            GreenMailUser user = smtp.getUserManager().getUserByEmail(email);
+            if (user != null) {
+                MailFolder inbox = smtp.getManagers().getImapHostManager().getInbox(user);
+                List<StoredMessage> messages = inbox.getMessages();
+                if (!messages.isEmpty()) {
+                    Matcher matcher = link.matcher(GreenMailUtil.getBody(messages.get(messages.size() - 1).getMimeMessage()));
+                    inbox.deleteAllMessages();
+                    return matcher.find() ? matcher.group(1) : null;
+                }
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        return null;
+    }
+
+    private HttpResponse<String> get(String path, String bearer) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), bearer);
+    }
+
+    private HttpResponse<String> post(String path, Map<String, ?> body, String bearer) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))), bearer);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request, String bearer) throws Exception {
+        if (bearer != null) {
+            request.header("Authorization", "Bearer " + bearer);
+        }
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean isOk(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+}
\ No newline at end of file
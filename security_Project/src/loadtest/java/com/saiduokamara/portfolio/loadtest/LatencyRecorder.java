@@ -0,0 +1,97 @@
+package com.saiduokamara.portfolio.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-step latency histograms (microseconds, 3 significant digits) and error counts.
+ * Recording is lock-free, so every virtual user writes into the same recorder.
+ */
+public class LatencyRecorder {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public void record(String step, long startNanos, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        histograms.computeIfAbsent(step, k -> new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3))
+                .recordValue(Math.min(micros, MAX_TRACKABLE_MICROS));
+        if (!success) {
+            errors.computeIfAbsent(step, k -> new LongAdder()).increment();
+        }
+    }
+
+    public void reset() {
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    public Map<String, Histogram> histograms() {
+        return histograms;
+    }
+
+    public long errors(String step) {
+        LongAdder adder = errors.get(step);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public double errorRate(String step) {
+        Histogram histogram = histograms.get(step);
+        return histogram == null || histogram.getTotalCount() == 0 ? 0 : errors(step) / (double) histogram.getTotalCount();
+    }
+
+    public double p99Millis(String step) {
+        Histogram histogram = histograms.get(step);
+        return histogram == null ? 0 : histogram.getValueAtPercentile(99) / 1000.0;
+    }
+
+    /**
+     * Writes every step's histogram as a tagged entry of an HdrHistogram log, which HistogramLogProcessor
+     * and the online plotters read, so two runs can be compared percentile by percentile.
+     */
+    public void writeLog(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                Histogram histogram = entry.getValue().copy();
+                histogram.setTag(entry.getKey());
+                writer.outputIntervalHistogram(histogram);
+            }
+        }
+    }
+
+    public void print(String title, Duration measured, PrintStream out) {
+        out.println();
+        out.println("== " + title + " ==");
+        out.printf("%-16s %10s %8s %10s %10s %10s %10s%n", "step", "count", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        histograms.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    Histogram histogram = entry.getValue();
+                    out.printf("%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                            entry.getKey(),
+                            histogram.getTotalCount(),
+                            errors(entry.getKey()),
+                            histogram.getTotalCount() / (double) measured.toSeconds(),
+                            histogram.getValueAtPercentile(50) / 1000.0,
+                            histogram.getValueAtPercentile(99) / 1000.0,
+                            histogram.getMaxValue() / 1000.0);
+                });
+    }
+}
\ No newline at end of file
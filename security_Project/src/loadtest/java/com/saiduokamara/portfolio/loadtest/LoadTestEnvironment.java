@@ -0,0 +1,72 @@
+package com.saiduokamara.portfolio.loadtest;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.saiduokamara.portfolio.ProjectApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Everything the application needs to boot locally: an embedded Postgres (migrated by Flyway on
+ * startup, exactly like production) and a GreenMail SMTP server the outbox dispatcher delivers to.
+ * Both are shared by every mode of a run; each mode boots its own application context on a random port.
+ */
+public class LoadTestEnvironment implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final GreenMail smtp;
+
+    private LoadTestEnvironment(EmbeddedPostgres postgres, GreenMail smtp) {
+        this.postgres = postgres;
+        this.smtp = smtp;
+    }
+
+    public static LoadTestEnvironment start() throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.start();
+        GreenMail smtp = new GreenMail(new ServerSetup(0, "127.0.0.1", ServerSetup.PROTOCOL_SMTP).dynamicPort());
+        smtp.start();
+        return new LoadTestEnvironment(postgres, smtp);
+    }
+
+    public GreenMail smtp() {
+        return smtp;
+    }
+
+    /**
+     * Boots the application in the given threading mode: "platform" uses the default Tomcat pool,
+     * "virtual" activates the virtual profile (spring.threads.virtual.enabled, JDK 21+).
+     */
+    public ConfigurableApplicationContext boot(String mode) {
+        // The placeholders application.properties expects from the environment
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("DATABASE_URL", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("DATABASE_USERNAME", "postgres");
+        properties.put("DATABASE_PASSWORD", "postgres");
+        properties.put("SPRING_MAIL_USERNAME", "loadtest@localhost");
+        properties.put("SPRING_MAIL_PASSWORD", "unused");
+        properties.put("GOOGLE_CLIENT_ID", "loadtest");
+        properties.put("GOOGLE_CLIENT_SECRET", "loadtest");
+        properties.put("GITHUB_CLIENT_ID", "loadtest");
+        properties.put("GITHUB_CLIENT_SECRET", "loadtest");
+        properties.put("JWT_SECRET", "load-test-signing-secret-that-is-at-least-256-bits-long");
+        properties.put("LOADTEST_SMTP_PORT", smtp.getSmtp().getPort());
+        properties.put("PORT", 0);
+
+        String[] profiles = mode.equals("virtual") ? new String[]{"loadtest", "virtual"} : new String[]{"loadtest"};
+        return new SpringApplicationBuilder(ProjectApplication.class)
+                .profiles(profiles)
+                .properties(properties)
+                .run();
+    }
+
+    @Override
+    public void close() throws IOException {
+        smtp.stop();
+        postgres.close();
+    }
+}
\ No newline at end of file
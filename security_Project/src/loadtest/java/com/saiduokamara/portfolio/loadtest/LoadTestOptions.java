@@ -0,0 +1,80 @@
+package com.saiduokamara.portfolio.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options, passed as --name=value:
+ * <ul>
+ *   <li>modes - comma-separated threading modes to compare, platform and/or virtual (default both)</li>
+ *   <li>users - concurrent virtual users; with a rate this is the cap on flows in flight (default 32)</li>
+ *   <li>rate - flow arrivals per second (open model); 0 runs users in a closed loop instead (default 0)</li>
+ *   <li>duration - measured seconds per mode (default 60)</li>
+ *   <li>warmup - unmeasured seconds per mode before that (default 15)</li>
+ *   <li>seed - pre-verified accounts inserted before the run for the session flow (default 1000)</li>
+ *   <li>mix - signup:session:reset flow weights (default 1:6:1)</li>
+ *   <li>logins - logins per signup flow (default 3)</li>
+ *   <li>reads - authenticated reads per session flow (default 5)</li>
+ *   <li>p99 - per-step p99 limits in ms, e.g. login:300,read:50; exceeding any fails the run</li>
+ *   <li>max-error-rate - per-step error ratio that fails the run (default 0.01)</li>
+ *   <li>out - directory for HdrHistogram logs, one per mode (default build/loadtest)</li>
+ * </ul>
+ */
+public record LoadTestOptions(List<String> modes, int users, double rate, Duration duration, Duration warmup,
+                              int seedUsers, int[] mix, int loginsPerUser, int readsPerSession,
+                              Map<String, Double> p99Limits, double maxErrorRate, Path outputDirectory) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        List<String> modes = Arrays.asList(values.getOrDefault("modes", "platform,virtual").split(","));
+        for (String mode : modes) {
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown mode " + mode + ", expected platform or virtual");
+            }
+        }
+
+        int[] mix = Arrays.stream(values.getOrDefault("mix", "1:6:1").split(":")).mapToInt(Integer::parseInt).toArray();
+        if (mix.length != 3 || Arrays.stream(mix).sum() <= 0) {
+            throw new IllegalArgumentException("mix must be three weights signup:session:reset");
+        }
+
+        Map<String, Double> p99Limits = new LinkedHashMap<>();
+        String limits = values.getOrDefault("p99", "");
+        if (!limits.isBlank()) {
+            for (String limit : limits.split(",")) {
+                String[] parts = limit.split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected step:millis in p99 but got " + limit);
+                }
+                p99Limits.put(parts[0], Double.parseDouble(parts[1]));
+            }
+        }
+
+        return new LoadTestOptions(
+                modes,
+                Integer.parseInt(values.getOrDefault("users", "32")),
+                Double.parseDouble(values.getOrDefault("rate", "0")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "15"))),
+                Integer.parseInt(values.getOrDefault("seed", "1000")),
+                mix,
+                Integer.parseInt(values.getOrDefault("logins", "3")),
+                Integer.parseInt(values.getOrDefault("reads", "5")),
+                p99Limits,
+                Double.parseDouble(values.getOrDefault("max-error-rate", "0.01")),
+                Path.of(values.getOrDefault("out", "build/loadtest")));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.saiduokamara.portfolio.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application once per threading mode against the same embedded Postgres and SMTP sink,
+ * seeds accounts, drives the auth flow mix for the configured duration and prints throughput and
+ * latency per step, followed by a side-by-side p99 comparison. Exits non-zero when a p99 limit or
+ * the error-rate limit is exceeded, so the Gradle task fails.
+ *
+ * <pre>./gradlew loadTest -PloadTestArgs="--rate=50 --users=128 --duration=120 --p99=login:300,read-user:50"</pre>
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Map<String, LatencyRecorder> results = new LinkedHashMap<>();
+        List<String> violations = new ArrayList<>();
+
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start()) {
+            for (String mode : options.modes()) {
+                if (mode.equals("virtual") && Runtime.version().feature() < 21) {
+                    System.out.println("Skipping virtual mode: needs JDK 21, running on " + Runtime.version());
+                    continue;
+                }
+                try (ConfigurableApplicationContext app = environment.boot(mode)) {
+                    int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                    UserSeeder.SeededUsers seeded = UserSeeder.seed(app, mode, options.seedUsers());
+
+                    AuthFlowScenario scenario = new AuthFlowScenario(port, mode, environment.smtp(), options, seeded);
+                    LatencyRecorder recorder = scenario.run();
+
+                    String load = options.rate() > 0 ? options.rate() + " flows/s" : options.users() + " users";
+                    recorder.print(mode + " threads, " + load, options.duration(), System.out);
+                    if (scenario.dropped() > 0) {
+                        System.out.println("dropped arrivals: " + scenario.dropped());
+                        violations.add(mode + ": " + scenario.dropped() + " arrivals dropped, every user was busy");
+                    }
+                    recorder.writeLog(options.outputDirectory().resolve(mode + ".hlog"));
+                    violations.addAll(checkThresholds(mode, recorder, options));
+                    results.put(mode, recorder);
+                }
+            }
+        }
+
+        if (results.size() > 1) {
+            printComparison(results);
+        }
+        if (!violations.isEmpty()) {
+            System.out.println();
+            System.out.println("== FAILED ==");
+            violations.forEach(System.out::println);
+            System.exit(1);
+        }
+    }
+
+    private static List<String> checkThresholds(String mode, LatencyRecorder recorder, LoadTestOptions options) {
+        List<String> violations = new ArrayList<>();
+        options.p99Limits().forEach((step, limit) -> {
+            if (!recorder.histograms().containsKey(step)) {
+                violations.add(mode + ": no samples for " + step);
+            } else if (recorder.p99Millis(step) > limit) {
+                violations.add(String.format("%s: %s p99 %.2f ms > %.2f ms", mode, step, recorder.p99Millis(step), limit));
+            }
+        });
+        recorder.histograms().keySet().forEach(step -> {
+            if (recorder.errorRate(step) > options.maxErrorRate()) {
+                violations.add(String.format("%s: %s error rate %.2f%% > %.2f%%",
+                        mode, step, recorder.errorRate(step) * 100, options.maxErrorRate() * 100));
+            }
+        });
+        return violations;
+    }
+
+    private static void printComparison(Map<String, LatencyRecorder> results) {
+        System.out.println();
+        System.out.println("== p99 ms by mode ==");
+        System.out.printf("%-16s", "step");
+        results.keySet().forEach(mode -> System.out.printf(" %12s", mode));
+        System.out.println();
+
+        results.values().iterator().next().histograms().keySet().stream().sorted().forEach(step -> {
+            System.out.printf("%-16s", step);
+            for (LatencyRecorder recorder : results.values()) {
+                Histogram histogram = recorder.histograms().get(step);
+                System.out.printf(" %12s", histogram == null ? "-" : String.format("%.2f", histogram.getValueAtPercentile(99) / 1000.0));
+            }
+            System.out.println();
+        });
+    }
+}
\ No newline at end of file
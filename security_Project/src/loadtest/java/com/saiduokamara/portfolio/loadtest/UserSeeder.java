@@ -0,0 +1,60 @@
+package com.saiduokamara.portfolio.loadtest;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Inserts verified accounts straight into the database so the measured run starts from a populated
+ * table instead of spending its first minutes registering. Every account shares one pre-computed
+ * hash; hashing a million passwords would dominate the setup otherwise.
+ */
+public class UserSeeder {
+
+    public static final String PASSWORD = "LoadTest#2024";
+
+    private static final int BATCH_SIZE = 1000;
+
+    public record Account(long id, String email, String password) {
+    }
+
+    /**
+     * Session accounts are ADMIN so they can exercise the /api/users reads and never change password.
+     * Reset accounts are handed out exclusively, one reset flow at a time, and go back with their new password.
+     */
+    public record SeededUsers(List<Account> sessionAccounts, ConcurrentLinkedQueue<Account> resetAccounts) {
+    }
+
+    public static SeededUsers seed(ApplicationContext app, String mode, int count) {
+        JdbcTemplate jdbcTemplate = app.getBean(JdbcTemplate.class);
+        // Same format and default cost as the app, so logins do not trigger a rehash
+        String hash = "{bcrypt}" + new BCryptPasswordEncoder().encode(PASSWORD);
+
+        List<Account> sessionAccounts = insert(jdbcTemplate, "seed-" + mode, count, "ADMIN", hash);
+        ConcurrentLinkedQueue<Account> resetAccounts =
+                new ConcurrentLinkedQueue<>(insert(jdbcTemplate, "reset-" + mode, Math.max(count / 10, 16), "USER", hash));
+        return new SeededUsers(sessionAccounts, resetAccounts);
+    }
+
+    private static List<Account> insert(JdbcTemplate jdbcTemplate, String prefix, int count, String role, String hash) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            batch.add(new Object[]{"Seed User " + i, prefix + "-" + i + "@loadtest.local", hash, role, now, now});
+            if (batch.size() == BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO users (full_name, email, password, role, is_enabled, created_at, updated_at) "
+                                + "VALUES (?, ?, ?, ?, TRUE, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return jdbcTemplate.query("SELECT id, email FROM users WHERE email LIKE ? ORDER BY id",
+                (rs, rowNum) -> new Account(rs.getLong("id"), rs.getString("email"), PASSWORD), prefix + "-%");
+    }
+}
\ No newline at end of file
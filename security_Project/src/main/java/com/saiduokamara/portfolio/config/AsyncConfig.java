@@ -1,10 +1,139 @@
 package com.saiduokamara.portfolio.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named executors, sized from app.executors.&lt;name&gt;.*:
+ * <ul>
+ *   <li>applicationTaskExecutor - default for @Async and Spring MVC async work such as the NDJSON user export</li>
+ *   <li>mailExecutor - blocking SMTP sends from EmailDispatcher</li>
+ *   <li>importExecutor - user imports, which can run for hours; a few threads, no queue</li>
+ *   <li>passwordUpgradeExecutor - best-effort re-hashing of weak password hashes after login</li>
+ * </ul>
+ * Platform pools have a bounded queue and fall back to caller-runs when full, which pushes back on
+ * the submitter; importExecutor instead rejects, so that an import never lands on a request thread, and
+ * passwordUpgradeExecutor drops the task, as the next login will try the upgrade again; Boot's actuator publishes their executor.* metrics and rejections are counted here.
+ * With virtual-threads=true (JDK 21+) an executor runs each task on a virtual thread, throttled by
+ * concurrency-limit, and publishes the same executor.active/queued/completed meters.
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
-    // Enables async method execution for email sending
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Also registered as "taskExecutor" so @Async without a qualifier resolves to it
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return buildExecutor("applicationTaskExecutor", "application");
+    }
+
+    @Bean
+    public AsyncTaskExecutor mailExecutor() {
+        return buildExecutor("mailExecutor", "mail");
+    }
+
+    // Kept apart from applicationTaskExecutor so that long imports cannot starve exports and logins
+    @Bean
+    public AsyncTaskExecutor importExecutor() {
+        return buildPool("importExecutor", "import", new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Caller-runs would put a second hash on the login request thread just when the system is busiest
+    @Bean
+    public AsyncTaskExecutor passwordUpgradeExecutor() {
+        return buildPool("passwordUpgradeExecutor", "password-upgrade", new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    private AsyncTaskExecutor buildExecutor(String beanName, String key) {
+        String prefix = "app.executors." + key + ".";
+        boolean virtualThreads = environment.getProperty(prefix + "virtual-threads", Boolean.class, false);
+
+        if (virtualThreads && Runtime.version().feature() >= 21) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(key + "-vt-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(environment.getProperty(prefix + "concurrency-limit", Integer.class, 64));
+            executor.setTaskDecorator(new VirtualThreadMetrics(beanName, meterRegistry));
+            logger.info("Executor {} runs on virtual threads", beanName);
+            return executor;
+        }
+        if (virtualThreads) {
+            logger.warn("Executor {} requested virtual threads but the JVM is {}; using platform threads",
+                    beanName, Runtime.version().feature());
+        }
+        return buildPool(beanName, key, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private AsyncTaskExecutor buildPool(String beanName, String key, RejectedExecutionHandler overflow) {
+        String prefix = "app.executors." + key + ".";
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(key + "-");
+        executor.setCorePoolSize(environment.getProperty(prefix + "core-size", Integer.class, 2));
+        executor.setMaxPoolSize(environment.getProperty(prefix + "max-size", Integer.class, 8));
+        executor.setQueueCapacity(environment.getProperty(prefix + "queue-capacity", Integer.class, 100));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        Counter rejected = Counter.builder("executor.rejected")
+                .tag("name", beanName)
+                .register(meterRegistry);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            overflow.rejectedExecution(task, pool);
+        });
+        return executor;
+    }
+
+    // executor.* meters for virtual-thread executors, which Boot's executor metrics do not cover
+    static final class VirtualThreadMetrics implements TaskDecorator {
+
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final Counter completed;
+
+        VirtualThreadMetrics(String name, MeterRegistry meterRegistry) {
+            Gauge.builder("executor.queued", queued, AtomicInteger::get).tag("name", name).register(meterRegistry);
+            Gauge.builder("executor.active", active, AtomicInteger::get).tag("name", name).register(meterRegistry);
+            completed = Counter.builder("executor.completed").tag("name", name).register(meterRegistry);
+        }
+
+        @Override
+        public Runnable decorate(Runnable task) {
+            // Decoration happens before the concurrency throttle, so "queued" includes throttled submitters
+            queued.incrementAndGet();
+            return () -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.increment();
+                }
+            };
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.saiduokamara.portfolio.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * The algorithm id and cost new hashes are created with. Stored hashes carry their own
+ * "{id}" prefix and cost, so changing these only affects new hashes and rehash-on-login.
+ */
+public record PasswordHashSettings(String algorithm, int strength) {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashSettings.class);
+
+    private static final int SAMPLES = 5;
+
+    /**
+     * Picks the highest BCrypt strength, between minStrength and maxStrength, whose hash takes at
+     * most targetMillis on this machine. Each strength step doubles the work, so one timed strength
+     * is enough to estimate the rest.
+     */
+    public static PasswordHashSettings calibrateBcrypt(int minStrength, int maxStrength, long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration-warmup");
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration-" + i);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double medianMillis = samples[SAMPLES / 2] / 1_000_000.0;
+
+        int strength = minStrength;
+        while (strength < maxStrength && medianMillis * (1L << (strength + 1 - minStrength)) <= targetMillis) {
+            strength++;
+        }
+        logger.info("BCrypt strength {} takes {} ms here; using strength {} for a {} ms target",
+                minStrength, String.format("%.1f", medianMillis), strength, targetMillis);
+        return new PasswordHashSettings("bcrypt", strength);
+    }
+}
\ No newline at end of file
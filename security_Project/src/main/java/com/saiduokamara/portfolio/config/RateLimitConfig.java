@@ -0,0 +1,70 @@
+package com.saiduokamara.portfolio.config;
+
+import com.saiduokamara.portfolio.ratelimit.InMemoryRateLimitStore;
+import com.saiduokamara.portfolio.ratelimit.JdbcRateLimitStore;
+import com.saiduokamara.portfolio.ratelimit.RateLimitPolicies;
+import com.saiduokamara.portfolio.ratelimit.RateLimitPolicy;
+import com.saiduokamara.portfolio.ratelimit.RateLimitStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+/**
+ * Rate-limit policies from app.rate-limit.&lt;policy&gt;.{limit, period-seconds, burst} and the
+ * bucket store selected by app.rate-limit.store (memory, the default, or jdbc).
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    public RateLimitPolicies rateLimitPolicies() {
+        return new RateLimitPolicies(
+                policy("login-ip", 30, 60, 10),
+                policy("login-email", 10, 300, 5),
+                policy("email-ip", 10, 600, 3),
+                policy("email-address", 3, 900, 2),
+                policy("reset-ip", 10, 600, 5));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+    public RateLimitStore inMemoryRateLimitStore(RateLimitPolicies policies, MeterRegistry meterRegistry) {
+        // Buckets idle for the longest period are full again and can be forgotten
+        Duration idleExpiry = Stream.of(policies.loginPerIp(), policies.loginPerEmail(),
+                        policies.emailPerIp(), policies.emailPerAddress(), policies.resetPerIp())
+                .map(RateLimitPolicy::period)
+                .max(Duration::compareTo)
+                .orElseThrow();
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(
+                environment.getProperty("app.rate-limit.memory.maximum-keys", Long.class, 100_000L), idleExpiry);
+        Gauge.builder("rate_limit.keys", store, InMemoryRateLimitStore::estimatedSize)
+                .description("Rate-limit buckets held in memory")
+                .register(meterRegistry);
+        return store;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "jdbc")
+    public RateLimitStore jdbcRateLimitStore(JdbcTemplate jdbcTemplate) {
+        return new JdbcRateLimitStore(jdbcTemplate);
+    }
+
+    private RateLimitPolicy policy(String name, int limit, int periodSeconds, int burst) {
+        String prefix = "app.rate-limit." + name + ".";
+        return new RateLimitPolicy(name,
+                environment.getProperty(prefix + "limit", Integer.class, limit),
+                Duration.ofSeconds(environment.getProperty(prefix + "period-seconds", Integer.class, periodSeconds)),
+                environment.getProperty(prefix + "burst", Integer.class, burst));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.saiduokamara.portfolio.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Enables the email outbox dispatcher and other background jobs
+}
\ No newline at end of file
@@ -10,6 +10,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -19,6 +20,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -31,10 +33,34 @@ public class SecurityConfig {
     @Value("${FRONTEND_URL:http://localhost:3000}")
     private String frontendUrl;
 
+    @Value("${app.hashing.bcrypt.strength:10}")
+    private int bcryptStrength;
 
+    @Value("${app.hashing.bcrypt.calibrate:false}")
+    private boolean calibrateBcrypt;
+
+    @Value("${app.hashing.bcrypt.target-ms:250}")
+    private long bcryptTargetMs;
+
+    @Value("${app.hashing.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    // The configured strength is a floor; calibration can only raise it
+    @Bean
+    public PasswordHashSettings passwordHashSettings() {
+        return calibrateBcrypt
+                ? PasswordHashSettings.calibrateBcrypt(bcryptStrength, bcryptMaxStrength, bcryptTargetMs)
+                : new PasswordHashSettings("bcrypt", bcryptStrength);
+    }
+
+    // New hashes are stored as {bcrypt}$2a$<cost>$...; hashes from before the prefix still match
+    // and are rewritten on the next login (PasswordEncoder.upgradeEncoding)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashSettings settings) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(settings.strength());
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(settings.algorithm(), Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
@@ -49,8 +75,12 @@ public class SecurityConfig {
                                 "/api/oauth/**",
                                 "/oauth2/**",
                                 "/login/**",
-                                "/error"
+                                "/error",
+                                "/actuator/health",
+                                "/.well-known/jwks.json"
                         ).permitAll()
+                        .requestMatchers("/actuator/prometheus").hasAnyRole("ADMIN", "METRICS")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth2 -> oauth2
@@ -97,6 +127,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(allowedOrigins);
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // The user list links its next page in this header; browsers hide non-safelisted headers otherwise
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
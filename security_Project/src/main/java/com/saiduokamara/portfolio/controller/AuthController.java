@@ -1,9 +1,21 @@
 package com.saiduokamara.portfolio.controller;
 
+import com.saiduokamara.portfolio.metrics.AuthMetrics;
 import com.saiduokamara.portfolio.model.domain.User;
+import com.saiduokamara.portfolio.model.dto.LoginView;
+import com.saiduokamara.portfolio.model.service.InvalidRefreshTokenException;
+import com.saiduokamara.portfolio.model.service.PasswordHashingUnavailableException;
+import com.saiduokamara.portfolio.model.service.RefreshTokenService;
+import com.saiduokamara.portfolio.model.service.TokenRevocationService;
 import com.saiduokamara.portfolio.model.service.UserService;
+import com.saiduokamara.portfolio.ratelimit.RateLimiter;
 import com.saiduokamara.portfolio.util.JwtUtil;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,16 +28,31 @@ import java.util.Optional;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
+        Timer.Sample sample = authMetrics.start();
         try {
-            System.out.println("Registration attempt for: " + user.getEmail());
+            logger.debug("Registration attempt for {}", user.getEmail());
             User savedUser = userService.registerUser(user);
 
             Map<String, Object> response = new HashMap<>();
@@ -39,26 +66,41 @@ public class AuthController {
                     "enabled", savedUser.isEnabled()
             ));
 
+            authMetrics.stop(sample, "register", AuthMetrics.SUCCESS);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingUnavailableException e) {
+            authMetrics.stop(sample, "register", "busy");
+            return serviceBusy(e);
         } catch (Exception e) {
-            System.out.println("Registration error: " + e.getMessage());
+            logger.info("Registration failed: {}", e.getMessage());
+            authMetrics.stop(sample, "register", failureReason(e, "already exists", "duplicate_email"));
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest httpRequest) {
+        Timer.Sample sample = authMetrics.start();
+        long retryAfter = rateLimiter.checkLogin(httpRequest.getRemoteAddr(), loginRequest.getEmail());
+        if (retryAfter > 0) {
+            authMetrics.stop(sample, "login", "rate_limited");
+            return tooManyRequests(retryAfter);
+        }
         try {
-            System.out.println("Login attempt for: " + loginRequest.getEmail());
-            Optional<User> userOpt = userService.login(loginRequest.getEmail(), loginRequest.getPassword());
+            logger.debug("Login attempt for {}", loginRequest.getEmail());
+            Optional<LoginView> userOpt = userService.login(loginRequest.getEmail(), loginRequest.getPassword());
 
             if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), loginRequest.isRememberMe());
+                LoginView user = userOpt.get();
+                String token = authMetrics.signToken(() -> jwtUtil.generateToken(user.getEmail(), user.getRole()));
+                // rememberMe now decides how long the session can be refreshed, not the access token lifetime
+                String refreshToken = refreshTokenService.issue(user.getId(), loginRequest.isRememberMe());
 
                 Map<String, Object> response = new HashMap<>();
                 response.put("message", "Login successful");
                 response.put("token", token);
+                response.put("refreshToken", refreshToken);
+                response.put("expiresIn", jwtUtil.getExpirationSeconds());
                 response.put("user", Map.of(
                         "id", user.getId(),
                         "fullName", user.getFullName(),
@@ -66,52 +108,105 @@ public class AuthController {
                         "role", user.getRole()
                 ));
 
+                authMetrics.stop(sample, "login", AuthMetrics.SUCCESS);
                 return ResponseEntity.ok(response);
             } else {
+                authMetrics.stop(sample, "login", "bad_credentials");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Invalid credentials"));
             }
+        } catch (PasswordHashingUnavailableException e) {
+            authMetrics.stop(sample, "login", "busy");
+            return serviceBusy(e);
         } catch (Exception e) {
-            System.out.println("Login error: " + e.getMessage());
+            logger.info("Login failed: {}", e.getMessage());
             String errorMessage = e.getMessage();
             HttpStatus status = HttpStatus.BAD_REQUEST;
+            String outcome = "error";
 
             if (errorMessage.contains("verify your email")) {
                 status = HttpStatus.FORBIDDEN;
                 errorMessage = "Please verify your email before logging in. Check your inbox for the verification link.";
+                outcome = "unverified";
             } else if (errorMessage.contains("Invalid credentials")) {
                 status = HttpStatus.UNAUTHORIZED;
                 errorMessage = "Invalid email or password";
+                outcome = "bad_credentials";
             }
+            authMetrics.stop(sample, "login", outcome);
 
             return ResponseEntity.status(status)
                     .body(Map.of("error", errorMessage));
         }
     }
 
+    // Exchanges a refresh token for a new access token and a new refresh token; the old one is spent
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
+        Timer.Sample sample = authMetrics.start();
+        String refreshToken = request.get("refreshToken");
+        if (refreshToken == null || refreshToken.isBlank()) {
+            authMetrics.stop(sample, "refresh", "missing_token");
+            return ResponseEntity.badRequest().body(Map.of("error", "Refresh token is required"));
+        }
+
+        try {
+            RefreshTokenService.RotatedTokens tokens = refreshTokenService.rotate(refreshToken);
+            authMetrics.stop(sample, "refresh", AuthMetrics.SUCCESS);
+            return ResponseEntity.ok(Map.of(
+                    "token", tokens.accessToken(),
+                    "refreshToken", tokens.refreshToken(),
+                    "expiresIn", tokens.expiresInSeconds()
+            ));
+        } catch (InvalidRefreshTokenException e) {
+            authMetrics.stop(sample, "refresh", e.getMessage().contains("reuse") ? "reused_token" : "invalid_token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody Map<String, String> request,
+                                    @RequestHeader(value = "Authorization", required = false) String authorization) {
+        String refreshToken = request.get("refreshToken");
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        // The access token would otherwise stay usable until it expires
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            try {
+                tokenRevocationService.revoke(jwtUtil.parseToken(authorization.substring(7)));
+            } catch (Exception e) {
+                // Already invalid or expired, nothing to revoke
+            }
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out"));
+    }
+
     @GetMapping("/verify")
     public ResponseEntity<?> verifyEmail(@RequestParam String token) {
-        Optional<User> userOpt = userService.findByVerificationToken(token);
-
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+        Timer.Sample sample = authMetrics.start();
+        boolean verified;
+        try {
+            verified = userService.verifyUser(token);
+        } catch (Exception e) {
+            // Rolled back, so the link is still valid and can be clicked again
+            logger.error("Email verification failed", e);
+            authMetrics.stop(sample, "verify", "error");
+            return ResponseEntity.status(500).body(Map.of(
                     "success", false,
-                    "error", "Invalid or expired verification token"
+                    "error", "Email verification failed, please try again"
             ));
         }
-
-        User user = userOpt.get();
-        if (user.isEnabled()) {
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "message", "Email already verified. You can login now."
+        // Tokens are single use, so a second click on the same link is rejected like an unknown token
+        if (!verified) {
+            authMetrics.stop(sample, "verify", "invalid_token");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "success", false,
+                    "error", "Invalid or expired verification token"
             ));
         }
 
-        user.setEnabled(true);
-        user.setVerificationToken(null);
-        userService.updateUser(user);
-
+        authMetrics.stop(sample, "verify", AuthMetrics.SUCCESS);
         return ResponseEntity.ok(Map.of(
                 "success", true,
                 "message", "Email verified successfully. You can now login."
@@ -119,57 +214,81 @@ public class AuthController {
     }
 
     @PostMapping("/forgot-password")
-    public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
+        Timer.Sample sample = authMetrics.start();
         try {
             String email = request.get("email");
             if (email == null || email.trim().isEmpty()) {
+                authMetrics.stop(sample, "forgot_password", "missing_email");
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Email is required"));
             }
 
+            long retryAfter = rateLimiter.checkEmailSend(httpRequest.getRemoteAddr(), email);
+            if (retryAfter > 0) {
+                authMetrics.stop(sample, "forgot_password", "rate_limited");
+                return tooManyRequests(retryAfter);
+            }
+
             userService.initiatePasswordReset(email);
+            authMetrics.stop(sample, "forgot_password", AuthMetrics.SUCCESS);
             return ResponseEntity.ok(Map.of(
                     "message", "Password reset instructions have been sent to your email",
                     "email", email
             ));
         } catch (Exception e) {
-            System.out.println("Forgot password error: " + e.getMessage());
+            logger.info("Forgot password failed: {}", e.getMessage());
+            authMetrics.stop(sample, "forgot_password", failureReason(e, "not found", "unknown_email"));
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         }
     }
 
     @PostMapping("/reset-password")
-    public ResponseEntity<?> resetPassword(@RequestBody ResetPasswordRequest resetRequest) {
+    public ResponseEntity<?> resetPassword(@RequestBody ResetPasswordRequest resetRequest, HttpServletRequest httpRequest) {
+        Timer.Sample sample = authMetrics.start();
+        long retryAfter = rateLimiter.checkPasswordReset(httpRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            authMetrics.stop(sample, "reset_password", "rate_limited");
+            return tooManyRequests(retryAfter);
+        }
         try {
             if (resetRequest.getToken() == null || resetRequest.getToken().trim().isEmpty()) {
+                authMetrics.stop(sample, "reset_password", "missing_token");
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Reset token is required"));
             }
 
             if (resetRequest.getNewPassword() == null || resetRequest.getNewPassword().length() < 6) {
+                authMetrics.stop(sample, "reset_password", "weak_password");
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Password must be at least 6 characters long"));
             }
 
             boolean reset = userService.resetPassword(resetRequest.getToken(), resetRequest.getNewPassword());
             if (reset) {
+                authMetrics.stop(sample, "reset_password", AuthMetrics.SUCCESS);
                 return ResponseEntity.ok(Map.of(
                         "message", "Password reset successfully. You can now login with your new password."
                 ));
             } else {
+                authMetrics.stop(sample, "reset_password", "invalid_token");
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Invalid or expired reset token"));
             }
+        } catch (PasswordHashingUnavailableException e) {
+            authMetrics.stop(sample, "reset_password", "busy");
+            return serviceBusy(e);
         } catch (Exception e) {
-            System.out.println("Reset password error: " + e.getMessage());
+            logger.info("Reset password failed: {}", e.getMessage());
+            authMetrics.stop(sample, "reset_password", failureReason(e, "expired", "expired_token"));
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         }
     }
 
     @PostMapping("/resend-verification")
-    public ResponseEntity<?> resendVerification(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> resendVerification(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         try {
             String email = request.get("email");
             if (email == null || email.trim().isEmpty()) {
@@ -177,13 +296,18 @@ public class AuthController {
                         .body(Map.of("error", "Email is required"));
             }
 
+            long retryAfter = rateLimiter.checkEmailSend(httpRequest.getRemoteAddr(), email);
+            if (retryAfter > 0) {
+                return tooManyRequests(retryAfter);
+            }
+
             userService.resendVerificationEmail(email);
             return ResponseEntity.ok(Map.of(
                     "message", "Verification email sent successfully. Please check your inbox.",
                     "email", email
             ));
         } catch (Exception e) {
-            System.out.println("Resend verification error: " + e.getMessage());
+            logger.info("Resend verification failed: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         }
@@ -198,6 +322,22 @@ public class AuthController {
         ));
     }
 
+    private static String failureReason(Exception e, String messageFragment, String reason) {
+        return e.getMessage() != null && e.getMessage().contains(messageFragment) ? reason : "error";
+    }
+
+    private ResponseEntity<?> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of("error", "Too many attempts, please try again later"));
+    }
+
+    private ResponseEntity<?> serviceBusy(PasswordHashingUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+
     public static class LoginRequest {
         private String email;
         private String password;
@@ -0,0 +1,31 @@
+package com.saiduokamara.portfolio.controller;
+
+import com.saiduokamara.portfolio.util.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Public keys for verifying our access tokens, so other services can check them without calling us
+@RestController
+public class JwksController {
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    // Must stay well below jwt.signing.publish-ahead-ms, or a verifier may not know a new key when it starts signing
+    @Value("${jwt.signing.jwks-max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic())
+                .body(keyRing.jwks());
+    }
+}
@@ -1,28 +1,41 @@
 package com.saiduokamara.portfolio.controller;
 
-import com.saiduokamara.portfolio.model.domain.User;
+import com.saiduokamara.portfolio.metrics.AuthMetrics;
+import com.saiduokamara.portfolio.model.dto.OAuthUserView;
 import com.saiduokamara.portfolio.model.service.UserService;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/oauth")
 public class OAuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(OAuthController.class);
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
     @GetMapping("/success")
-    public ResponseEntity<?> oauthSuccess(@AuthenticationPrincipal OAuth2User oauth2User) {
+    public ResponseEntity<?> oauthSuccess(@AuthenticationPrincipal OAuth2User oauth2User,
+                                          Authentication authentication) {
+        Timer.Sample sample = authMetrics.start();
         try {
             if (oauth2User == null) {
+                authMetrics.stop(sample, "oauth", "unauthenticated");
                 return ResponseEntity.status(401).body(Map.of(
                         "error", "OAuth authentication failed",
                         "message", "User not authenticated via OAuth"
@@ -37,23 +50,16 @@ public class OAuthController {
                 if (login != null) {
                     email = login + "@github.com";
                 } else {
+                    authMetrics.stop(sample, "oauth", "missing_email");
                     return ResponseEntity.badRequest().body(Map.of("error", "Email not provided by OAuth provider"));
                 }
             }
 
-            User existingUser = userService.findByEmail(email).orElse(null);
-            User user;
-
-            if (existingUser == null) {
-                user = new User();
-                user.setEmail(email);
-                user.setFullName(name != null ? name : (login != null ? login : "OAuth User"));
-                user.setPassword(UUID.randomUUID().toString());
-                user.setRole("USER");
-                user = userService.registerUser(user);
-            } else {
-                user = existingUser;
-            }
+            String provider = authentication instanceof OAuth2AuthenticationToken oauthToken
+                    ? oauthToken.getAuthorizedClientRegistrationId()
+                    : "oauth";
+            OAuthUserView user = userService.registerOAuthUser(provider, oauth2User.getName(), email,
+                    name != null ? name : login);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -65,10 +71,12 @@ public class OAuthController {
                     "role", user.getRole()
             ));
 
+            authMetrics.stop(sample, "oauth", AuthMetrics.SUCCESS);
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
-            System.err.println("OAuth2 ERROR: " + e.getMessage());
+            logger.warn("OAuth login failed", e);
+            authMetrics.stop(sample, "oauth", "error");
             return ResponseEntity.badRequest().body(Map.of("error", "OAuth login failed: " + e.getMessage()));
         }
     }
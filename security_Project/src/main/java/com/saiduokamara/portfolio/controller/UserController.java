@@ -1,45 +1,99 @@
 package com.saiduokamara.portfolio.controller;
 
+import com.saiduokamara.portfolio.config.PasswordHashSettings;
 import com.saiduokamara.portfolio.model.domain.User;
+import com.saiduokamara.portfolio.model.dto.BulkDeleteRequest;
+import com.saiduokamara.portfolio.model.dto.BulkRoleChangeRequest;
 import com.saiduokamara.portfolio.model.dto.CreateUserRequest;
 import com.saiduokamara.portfolio.model.dto.UpdateUserRequest;
+import com.saiduokamara.portfolio.model.dto.UserPage;
 import com.saiduokamara.portfolio.model.dto.UserResponse;
+import com.saiduokamara.portfolio.model.service.PasswordHashingUnavailableException;
+import com.saiduokamara.portfolio.model.service.UserImportService;
 import com.saiduokamara.portfolio.model.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PasswordHashSettings passwordHashSettings;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    @Qualifier("importExecutor")
+    private TaskExecutor importExecutor;
+
+    @Value("${app.import.timeout-ms:7200000}")
+    private long importTimeoutMs;
+
     private UserResponse convertToUserResponse(User user) {
-        return new UserResponse(
-                user.getId(),
-                user.getFullName(),
-                user.getEmail(),
-                user.getRole()
-        );
+        return UserResponse.from(user);
+    }
+
+    private ResponseEntity<?> serviceBusy(PasswordHashingUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
     }
 
+    // Keyset-paginated list; the body stays a JSON array and the next page is linked via X-Next-Cursor
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(defaultValue = "id") String sort,
+                                         @RequestParam(defaultValue = "asc") String direction,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
         try {
-            List<User> users = userService.findAllUsers();
-            List<UserResponse> userResponses = users.stream()
-                    .map(this::convertToUserResponse)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(userResponses);
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            UserPage page = userService.findUsersPage(sort, "desc".equalsIgnoreCase(direction), cursor, pageSize);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.users());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
                     "error", "Failed to fetch users: " + e.getMessage()
@@ -47,6 +101,158 @@ public class UserController {
         }
     }
 
+    @GetMapping(value = "/export", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = userService::exportUsers;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Bulk user import from a text/csv or application/x-ndjson upload. The body is read on the
+     * import executor while the report streams back: one NDJSON line per input row with its
+     * status (CREATED, INVALID, DUPLICATE or FAILED) and the new id or the reason. The request has its
+     * own async timeout, app.import.timeout-ms, instead of the much shorter default for other requests.
+     * When every import thread is busy the upload is refused with a 503 and nothing is read.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON}, produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseBodyEmitter> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                           InputStream body) throws IOException {
+        UserImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+        ResponseBodyEmitter report = new ResponseBodyEmitter(importTimeoutMs);
+        UserImportService.RowReader upload;
+        try {
+            upload = userImportService.open(body, format);
+        } catch (IllegalArgumentException | IOException e) {
+            report.send(Map.of("error", e.getMessage() != null ? e.getMessage() : "Unreadable upload"), MediaType.APPLICATION_JSON);
+            report.complete();
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(report);
+        }
+        try {
+            importExecutor.execute(() -> {
+                // After a timeout the emitter rejects sends, which stops the import at its next window
+                try (OutputStream out = new EmitterOutputStream(report)) {
+                    upload.importTo(out);
+                    report.complete();
+                } catch (Exception e) {
+                    report.completeWithError(e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            report.send(Map.of("error", "Too many imports are running, please try again later"), MediaType.APPLICATION_JSON);
+            report.complete();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON).body(report);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(report);
+    }
+
+    // Sets the role of every listed user in one statement; users whose role changed are signed out
+    @PostMapping("/bulk/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> changeRoles(@Valid @RequestBody BulkRoleChangeRequest request) {
+        String role = request.getRole().trim().toUpperCase(Locale.ROOT);
+        if (!User.ROLES.contains(role)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown role: " + request.getRole()));
+        }
+        try {
+            List<Long> updated = userService.changeRoles(request.getIds(), role);
+            return ResponseEntity.ok(Map.of("updated", updated, "notFound", missing(request.getIds(), updated)));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to change roles: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/bulk/delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> deleteUsers(@Valid @RequestBody BulkDeleteRequest request) {
+        try {
+            List<Long> deleted = userService.deleteUsers(request.getIds());
+            return ResponseEntity.ok(Map.of("deleted", deleted, "notFound", missing(request.getIds(), deleted)));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to delete users: " + e.getMessage()));
+        }
+    }
+
+    private static List<Long> missing(List<Long> requested, List<Long> found) {
+        Set<Long> foundIds = new HashSet<>(found);
+        return requested.stream().filter(id -> id != null && !foundIds.contains(id)).distinct().toList();
+    }
+
+    // Role / enabled / creation-date filtered listing for admin screens; filtering and paging happen in the database
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> searchUsers(@RequestParam(required = false) String role,
+                                         @RequestParam(required = false) Boolean enabled,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                         @RequestParam(defaultValue = "id") String sort,
+                                         @RequestParam(defaultValue = "asc") String direction) {
+        boolean byDate = createdFrom != null || createdTo != null;
+        int filters = (role != null ? 1 : 0) + (enabled != null ? 1 : 0) + (byDate ? 1 : 0);
+        if (filters != 1) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Specify exactly one of role, enabled or createdFrom/createdTo"));
+        }
+        if (!"id".equals(sort) && !"createdAt".equals(sort)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported sort field: " + sort));
+        }
+
+        try {
+            Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+            Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+                    Sort.by(sortDirection, sort));
+
+            Page<UserResponse> users;
+            if (role != null) {
+                users = userService.findUsersByRole(role, pageable);
+            } else if (enabled != null) {
+                users = userService.findUsersByEnabled(enabled, pageable);
+            } else {
+                users = userService.findUsersCreatedBetween(
+                        createdFrom != null ? createdFrom : LocalDateTime.of(1970, 1, 1, 0, 0),
+                        createdTo != null ? createdTo : LocalDateTime.of(9999, 12, 31, 23, 59),
+                        pageable);
+            }
+
+            return ResponseEntity.ok(Map.of(
+                    "users", users.getContent(),
+                    "page", users.getNumber(),
+                    "size", users.getSize(),
+                    "totalElements", users.getTotalElements(),
+                    "totalPages", users.getTotalPages()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to search users: " + e.getMessage()));
+        }
+    }
+
+    // How many stored hashes use each algorithm and cost, next to the settings new hashes get
+    @GetMapping("/password-hash-costs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPasswordHashCosts() {
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "algorithm", passwordHashSettings.algorithm(),
+                    "strength", passwordHashSettings.strength(),
+                    "distribution", userService.passwordHashCostReport()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to build hash cost report: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getUserById(@PathVariable Long id) {
@@ -78,6 +284,8 @@ public class UserController {
 
             User createdUser = userService.registerUser(user);
             return ResponseEntity.ok(convertToUserResponse(createdUser));
+        } catch (PasswordHashingUnavailableException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -100,6 +308,8 @@ public class UserController {
             } else {
                 return ResponseEntity.status(404).body(Map.of("error", "User not found with id: " + id));
             }
+        } catch (PasswordHashingUnavailableException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -120,4 +330,40 @@ public class UserController {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to delete user: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Sends each flushed window of report lines to the client as one chunk
+    private static final class EmitterOutputStream extends OutputStream {
+
+        private static final MediaType NDJSON_TYPE = MediaType.parseMediaType(NDJSON);
+
+        private final ResponseBodyEmitter emitter;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private EmitterOutputStream(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            buffer.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (buffer.size() > 0) {
+                emitter.send(buffer.toByteArray(), NDJSON_TYPE);
+                buffer.reset();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.saiduokamara.portfolio.filter;
 
+import com.saiduokamara.portfolio.metrics.AuthMetrics;
+import com.saiduokamara.portfolio.model.service.TokenRevocationService;
+import com.saiduokamara.portfolio.util.JwtPrincipal;
+import com.saiduokamara.portfolio.util.JwtTokenCache;
 import com.saiduokamara.portfolio.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -13,7 +17,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -21,33 +25,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private JwtTokenCache tokenCache;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String email = null;
-        String jwt = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            long start = System.nanoTime();
+            String jwt = authorizationHeader.substring(7);
             try {
-                email = jwtUtil.extractEmail(jwt);
+                JwtTokenCache.Entry entry = tokenCache.get(jwt);
+                String result = "cache_hit";
+                if (entry == null) {
+                    result = "verified";
+                    // Single signature check and parse; expired tokens are rejected by the parser itself
+                    JwtPrincipal principal = jwtUtil.parseToken(jwt);
+                    entry = new JwtTokenCache.Entry(principal,
+                            List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())));
+                    tokenCache.put(jwt, entry);
+                }
+                // In-memory lookup, also on a cache hit so a cached token cannot outlive its revocation
+                if (tokenRevocationService.isRevoked(entry.principal())) {
+                    result = "revoked";
+                } else if (entry.principal().email() != null) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            entry.principal().email(), null, entry.authorities()
+                    );
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+                authMetrics.recordFilter(start, result);
             } catch (Exception e) {
+                authMetrics.recordFilter(start, "invalid");
                 logger.warn("JWT token is invalid or expired");
             }
         }
-
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt)) {
-                String role = jwtUtil.extractRole(jwt);
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        email, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
-        }
         filterChain.doFilter(request, response);
     }
 }
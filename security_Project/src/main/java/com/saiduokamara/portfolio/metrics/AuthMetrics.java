@@ -0,0 +1,72 @@
+package com.saiduokamara.portfolio.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the auth flows. A request is split into phases that each have their own meter:
+ * <ul>
+ *   <li>auth.requests{flow, outcome} - end to end per flow, with percentile histograms</li>
+ *   <li>auth.outcomes{flow, outcome} - success and each failure reason</li>
+ *   <li>auth.token.signing - JWT creation on login</li>
+ *   <li>auth.filter{result} - bearer token handling in JwtAuthenticationFilter</li>
+ * </ul>
+ * BCrypt time is in password.hashing.* (PasswordHashingService) and JDBC time in Boot's
+ * spring.data.repository.invocations and hikaricp.* meters.
+ */
+@Component
+public class AuthMetrics {
+
+    public static final String SUCCESS = "success";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer tokenSigningTimer;
+
+    @PostConstruct
+    void init() {
+        tokenSigningTimer = Timer.builder("auth.token.signing")
+                .description("Time to create and sign an access token")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, String flow, String outcome) {
+        sample.stop(Timer.builder("auth.requests")
+                .description("Auth endpoint latency by flow and outcome")
+                .tag("flow", flow)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        Counter.builder("auth.outcomes")
+                .tag("flow", flow)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public String signToken(Supplier<String> signer) {
+        return tokenSigningTimer.record(signer);
+    }
+
+    public void recordFilter(long startNanos, String result) {
+        Timer.builder("auth.filter")
+                .description("Bearer token verification in the security filter")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.saiduokamara.portfolio.model.dao;
+
+import com.saiduokamara.portfolio.model.domain.EmailOutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // FOR UPDATE SKIP LOCKED: concurrent dispatchers (other instances) never claim the same rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from EmailOutboxMessage m where m.status = :status and m.nextAttemptAt <= :now " +
+            "order by m.nextAttemptAt")
+    List<EmailOutboxMessage> findDueForUpdate(@Param("status") EmailOutboxMessage.Status status,
+                                              @Param("now") LocalDateTime now, Pageable pageable);
+
+    // The body goes too: it carries working verification and reset links
+    @Modifying
+    @Query("update EmailOutboxMessage m set m.status = :status, m.sentAt = :sentAt, m.lastError = null, " +
+            "m.body = null where m.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("status") EmailOutboxMessage.Status status,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("update EmailOutboxMessage m set m.status = :status, m.attempts = :attempts, " +
+            "m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError where m.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") EmailOutboxMessage.Status status,
+                   @Param("attempts") int attempts, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+}
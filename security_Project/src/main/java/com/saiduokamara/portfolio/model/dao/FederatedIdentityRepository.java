@@ -0,0 +1,34 @@
+package com.saiduokamara.portfolio.model.dao;
+
+import com.saiduokamara.portfolio.model.domain.FederatedIdentity;
+import com.saiduokamara.portfolio.model.dto.OAuthUserView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Optional;
+
+public interface FederatedIdentityRepository extends JpaRepository<FederatedIdentity, Long> {
+
+    @Query("select u.id as id, u.email as email, u.fullName as fullName, u.role as role " +
+            "from FederatedIdentity fi join fi.user u " +
+            "where fi.provider = :provider and fi.providerSubject = :subject")
+    Optional<OAuthUserView> findLinkedUser(@Param("provider") String provider, @Param("subject") String subject);
+
+    // First sign-in: creates (or reuses, by email) the user and links the provider account in one statement.
+    // An existing account keeps its role, name and enabled flag.
+    @Query(value = """
+            WITH upserted AS (
+                INSERT INTO users (email, full_name, role, is_enabled, created_at, updated_at)
+                VALUES (:email, :fullName, 'USER', true, now(), now())
+                ON CONFLICT (email) DO UPDATE SET updated_at = users.updated_at
+                RETURNING id, email, full_name, role
+            ), linked AS (
+                INSERT INTO federated_identities (user_id, provider, provider_subject, created_at, last_login_at)
+                SELECT id, :provider, :subject, now(), now() FROM upserted
+                ON CONFLICT (provider, provider_subject) DO UPDATE SET last_login_at = now()
+            )
+            SELECT id AS "id", email AS "email", full_name AS "fullName", role AS "role" FROM upserted
+            """, nativeQuery = true)
+    OAuthUserView upsertLinkedUser(@Param("provider") String provider, @Param("subject") String subject,
+                                   @Param("email") String email, @Param("fullName") String fullName);
+}
@@ -0,0 +1,41 @@
+package com.saiduokamara.portfolio.model.dao;
+
+import com.saiduokamara.portfolio.model.domain.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // The token row and its user in one statement over the unique token_hash index
+    @Query("select t from RefreshToken t join fetch t.user where t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(@Param("tokenHash") String tokenHash);
+
+    // Succeeds for exactly one caller per token; zero rows means it was already rotated or revoked
+    @Modifying
+    @Query("update RefreshToken t set t.usedAt = :now where t.id = :id and t.usedAt is null and t.revokedAt is null")
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Logout: the presented token's whole family in one statement
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.revokedAt is null and t.familyId = " +
+            "(select r.familyId from RefreshToken r where r.tokenHash = :tokenHash)")
+    int revokeFamilyOf(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    // Password reset, deletion or role change: every device of the user
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.user.id = :userId and t.revokedAt is null")
+    int revokeAllForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.user.id in :userIds and t.revokedAt is null")
+    int revokeAllForUsers(@Param("userIds") Collection<Long> userIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,11 +1,63 @@
 package com.saiduokamara.portfolio.model.dao;
 
 import com.saiduokamara.portfolio.model.domain.User;
+import com.saiduokamara.portfolio.model.dto.LoginView;
+import com.saiduokamara.portfolio.model.dto.UserResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-    Optional<User> findByVerificationToken(String token);
-    Optional<User> findByResetToken(String token);
+
+    @Query("select u.id as id, u.email as email, u.fullName as fullName, u.role as role, " +
+            "u.password as password, u.enabled as enabled from User u where u.email = :email")
+    Optional<LoginView> findLoginViewByEmail(@Param("email") String email);
+
+    // Only replaces the hash that was verified, so a concurrent password change wins
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int upgradePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    // Keyset pages for the admin user list; the Pageable only carries the page size
+    String USER_RESPONSE = "select new com.saiduokamara.portfolio.model.dto.UserResponse(" +
+            "u.id, u.fullName, u.email, u.role, u.createdAt) from User u ";
+
+    @Query(USER_RESPONSE + "where u.id > :afterId order by u.id asc")
+    List<UserResponse> findPageByIdAsc(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(USER_RESPONSE + "where u.id < :beforeId order by u.id desc")
+    List<UserResponse> findPageByIdDesc(@Param("beforeId") long beforeId, Pageable pageable);
+
+    @Query(USER_RESPONSE + "where u.createdAt > :createdAt or (u.createdAt = :createdAt and u.id > :id) " +
+            "order by u.createdAt asc, u.id asc")
+    List<UserResponse> findPageByCreatedAtAsc(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id,
+                                              Pageable pageable);
+
+    @Query(USER_RESPONSE + "where u.createdAt < :createdAt or (u.createdAt = :createdAt and u.id < :id) " +
+            "order by u.createdAt desc, u.id desc")
+    List<UserResponse> findPageByCreatedAtDesc(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id,
+                                               Pageable pageable);
+
+    // Filtered admin queries; each is served by the matching (column, id) index
+    @Query(value = USER_RESPONSE + "where u.role = :role",
+            countQuery = "select count(u) from User u where u.role = :role")
+    Page<UserResponse> findPageByRole(@Param("role") String role, Pageable pageable);
+
+    @Query(value = USER_RESPONSE + "where u.enabled = :enabled",
+            countQuery = "select count(u) from User u where u.enabled = :enabled")
+    Page<UserResponse> findPageByEnabled(@Param("enabled") boolean enabled, Pageable pageable);
+
+    @Query(value = USER_RESPONSE + "where u.createdAt >= :from and u.createdAt < :to",
+            countQuery = "select count(u) from User u where u.createdAt >= :from and u.createdAt < :to")
+    Page<UserResponse> findPageByCreatedAtBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                  Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.saiduokamara.portfolio.model.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// Links a user to an external OAuth provider account (Google "sub", GitHub "id")
+@Entity
+@Table(name = "federated_identities",
+        uniqueConstraints = @UniqueConstraint(name = "uk_federated_identities_provider_subject",
+                columnNames = {"provider", "provider_subject"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class FederatedIdentity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 32)
+    private String provider;
+
+    @Column(name = "provider_subject", nullable = false)
+    private String providerSubject;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_login_at")
+    private LocalDateTime lastLoginAt;
+}
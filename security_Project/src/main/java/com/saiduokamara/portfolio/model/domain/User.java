@@ -6,17 +6,32 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Set;
 
 @Entity
-@Table(name = "users") // Changed from "user" to avoid SQL keyword conflict
+@Table(name = "users", // Changed from "user" to avoid SQL keyword conflict
+        indexes = {
+                @Index(name = "idx_users_role", columnList = "role, id"),
+                @Index(name = "idx_users_is_enabled", columnList = "is_enabled, id"),
+                @Index(name = "idx_users_created_at", columnList = "created_at, id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    // Roles an admin can assign; SecurityConfig grants access by these
+    public static final Set<String> ROLES = Set.of("USER", "ADMIN", "METRICS");
+
+    // Ids reserved per nextval on users_id_seq; must match its INCREMENT BY (see V10__users_id_sequence.sql)
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence rather than IDENTITY, so Hibernate can batch inserts (hibernate.jdbc.batch_size)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id")
+    @SequenceGenerator(name = "users_id", sequenceName = "users_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -24,7 +39,7 @@ public class User {
 
     private String fullName;
 
-    @Column(nullable = false)
+    // Null for accounts that only sign in through an OAuth provider (see FederatedIdentity)
     private String password;
 
     private String role = "USER";
@@ -32,15 +47,6 @@ public class User {
     @Column(name = "is_enabled")
     private boolean enabled = false;
 
-    @Column(name = "verification_token")
-    private String verificationToken;
-
-    @Column(name = "reset_token")
-    private String resetToken;
-
-    @Column(name = "reset_token_expiry")
-    private LocalDateTime resetTokenExpiry;
-
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -49,15 +55,22 @@ public class User {
 
     @PrePersist
     protected void onCreate() {
+        email = normalizeEmail(email);
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
 
     @PreUpdate
     protected void onUpdate() {
+        email = normalizeEmail(email);
         updatedAt = LocalDateTime.now();
     }
 
+    // Emails are stored lower-cased so lookups can use the unique index (see V3__users_indexes.sql)
+    public static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
     // Add constructor for OAuth users
     public User(String email, String fullName, String password, String role) {
         this.email = email;
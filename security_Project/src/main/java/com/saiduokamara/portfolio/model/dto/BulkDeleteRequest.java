@@ -0,0 +1,14 @@
+package com.saiduokamara.portfolio.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkDeleteRequest {
+    @NotEmpty(message = "ids are required")
+    @Size(max = 10000, message = "At most 10000 ids per request")
+    private List<Long> ids;
+}
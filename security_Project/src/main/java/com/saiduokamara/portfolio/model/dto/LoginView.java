@@ -0,0 +1,11 @@
+package com.saiduokamara.portfolio.model.dto;
+
+// The columns a password login needs, read in one query without hydrating the User entity
+public interface LoginView {
+    Long getId();
+    String getEmail();
+    String getFullName();
+    String getRole();
+    String getPassword();
+    boolean isEnabled();
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.saiduokamara.portfolio.model.dto;
+
+// Projection returned by the federated sign-in queries; never hydrates the full User entity
+public interface OAuthUserView {
+    Long getId();
+    String getEmail();
+    String getFullName();
+    String getRole();
+}
@@ -0,0 +1,7 @@
+package com.saiduokamara.portfolio.model.dto;
+
+import java.util.List;
+
+// One keyset page of users; nextCursor is null on the last page
+public record UserPage(List<UserResponse> users, String nextCursor) {
+}
@@ -1,10 +1,13 @@
 
 package com.saiduokamara.portfolio.model.dto;
 
+import com.saiduokamara.portfolio.model.domain.User;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,4 +16,15 @@ public class UserResponse {
     private String fullName;
     private String email;
     private String role;
+    private LocalDateTime createdAt;
+
+    public static UserResponse from(User user) {
+        return new UserResponse(
+                user.getId(),
+                user.getFullName(),
+                user.getEmail(),
+                user.getRole(),
+                user.getCreatedAt()
+        );
+    }
 }
@@ -0,0 +1,145 @@
+package com.saiduokamara.portfolio.model.service;
+
+import com.saiduokamara.portfolio.model.domain.EmailOutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Drains the email outbox. Every tick claims up to app.mail.dispatcher.batch-size due messages
+ * and hands them to JavaMailSender as one batch, which sends them all over a single SMTP
+ * connection. Throughput is therefore capped at concurrency x batch-size per interval-ms.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    @Autowired
+    private EmailOutboxService outboxService;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("mailExecutor")
+    private TaskExecutor mailExecutor;
+
+    @Value("${app.mail.dispatcher.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.dispatcher.concurrency:1}")
+    private int concurrency;
+
+    @Value("${spring.mail.username:}")
+    private String from;
+
+    private Counter sentCounter;
+    private Counter failedCounter;
+    private Counter deadCounter;
+
+    @PostConstruct
+    void init() {
+        sentCounter = meterRegistry.counter("mail.outbox.sent");
+        failedCounter = meterRegistry.counter("mail.outbox.failed");
+        deadCounter = meterRegistry.counter("mail.outbox.dead");
+    }
+
+    // Claims up to app.mail.dispatcher.concurrency batches and sends them in parallel on mailExecutor
+    @Scheduled(fixedDelayString = "${app.mail.dispatcher.interval-ms:5000}")
+    public void dispatch() {
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            List<EmailOutboxMessage> batch = outboxService.claimBatch(batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            inFlight.add(CompletableFuture.runAsync(() -> sendBatch(batch), mailExecutor));
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void sendBatch(List<EmailOutboxMessage> batch) {
+        Map<SimpleMailMessage, EmailOutboxMessage> byMailMessage = new IdentityHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            byMailMessage.put(toMailMessage(message), message);
+        }
+
+        Map<EmailOutboxMessage, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(byMailMessage.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                batch.forEach(message -> failures.put(message, e));
+            } else {
+                e.getFailedMessages().forEach((mailMessage, cause) -> {
+                    EmailOutboxMessage message = byMailMessage.get(mailMessage);
+                    if (message != null) {
+                        failures.put(message, cause);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            // Connection or authentication failure: nothing in the batch went out
+            batch.forEach(message -> failures.put(message, e));
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        for (EmailOutboxMessage message : batch) {
+            Exception failure = failures.get(message);
+            if (failure == null) {
+                sentIds.add(message.getId());
+                continue;
+            }
+            failedCounter.increment();
+            if (outboxService.markFailed(message, failure.getMessage())) {
+                deadCounter.increment();
+                logger.error("Email {} to {} dead-lettered after {} attempts: {}",
+                        message.getId(), message.getRecipient(), message.getAttempts() + 1, failure.getMessage());
+            } else {
+                logger.warn("Email {} to {} failed, will retry: {}",
+                        message.getId(), message.getRecipient(), failure.getMessage());
+            }
+        }
+        outboxService.markSent(sentIds);
+        sentCounter.increment(sentIds.size());
+        logger.info("Email batch dispatched: {} sent, {} failed", sentIds.size(), failures.size());
+    }
+
+    private SimpleMailMessage toMailMessage(EmailOutboxMessage message) {
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        if (!from.isEmpty()) {
+            mailMessage.setFrom(from);
+        }
+        mailMessage.setTo(message.getRecipient());
+        mailMessage.setSubject(message.getSubject());
+        mailMessage.setText(message.getBody());
+        return mailMessage;
+    }
+}
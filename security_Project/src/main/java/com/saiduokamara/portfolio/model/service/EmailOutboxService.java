@@ -0,0 +1,124 @@
+package com.saiduokamara.portfolio.model.service;
+
+import com.saiduokamara.portfolio.model.dao.EmailOutboxRepository;
+import com.saiduokamara.portfolio.model.domain.EmailOutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// Outbox state transitions; each runs in its own short transaction so no row lock is held during SMTP
+@Service
+@Transactional
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.mail.dispatcher.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.mail.dispatcher.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.dispatcher.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.mail.dispatcher.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${app.mail.outbox.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${app.mail.outbox.cleanup-batch-size:1000}")
+    private int cleanupBatchSize;
+
+    public void enqueue(String recipient, String subject, String body) {
+        outboxRepository.save(new EmailOutboxMessage(recipient, subject, body));
+    }
+
+    // Bulk import: one JDBC batch; saveAll would insert row by row to read back each identity id
+    public void enqueueAll(List<EmailOutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO email_outbox (recipient, subject, body, status, attempts, next_attempt_at, created_at) "
+                        + "VALUES (?, ?, ?, ?, 0, ?, ?)",
+                messages, messages.size(), (ps, message) -> {
+                    ps.setString(1, message.getRecipient());
+                    ps.setString(2, message.getSubject());
+                    ps.setString(3, message.getBody());
+                    ps.setString(4, EmailOutboxMessage.Status.PENDING.name());
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                });
+    }
+
+    // Claims due messages and leases them: pushing next_attempt_at forward hides them from other
+    // dispatchers while in flight, and makes them due again if this instance dies mid-send
+    public List<EmailOutboxMessage> claimBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> batch = outboxRepository.findDueForUpdate(
+                EmailOutboxMessage.Status.PENDING, now, PageRequest.of(0, batchSize));
+        batch.forEach(message -> message.setNextAttemptAt(now.plusSeconds(leaseSeconds)));
+        return batch;
+    }
+
+    public void markSent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxRepository.markSent(ids, EmailOutboxMessage.Status.SENT, LocalDateTime.now());
+        }
+    }
+
+    // Exponential backoff; after max-attempts the message is dead-lettered and left for inspection
+    public boolean markFailed(EmailOutboxMessage message, String error) {
+        int attempts = message.getAttempts() + 1;
+        boolean dead = attempts >= maxAttempts;
+        long backoffSeconds = Math.min(maxBackoffSeconds, initialBackoffSeconds << Math.min(attempts - 1, 20));
+        String lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        outboxRepository.markFailed(message.getId(),
+                dead ? EmailOutboxMessage.Status.DEAD : EmailOutboxMessage.Status.PENDING,
+                attempts,
+                LocalDateTime.now().plus(Duration.ofSeconds(backoffSeconds)),
+                lastError);
+        return dead;
+    }
+
+    // Sent and dead messages older than the retention period, in small batches like UserTokenService.deleteExpired
+    @Scheduled(fixedDelayString = "${app.mail.outbox.cleanup-interval-ms:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void purgeFinished() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM email_outbox WHERE id IN (SELECT id FROM email_outbox "
+                            + "WHERE status IN ('SENT', 'DEAD') AND created_at < ? LIMIT ?)",
+                    cutoff, cleanupBatchSize);
+            total += deleted;
+        } while (deleted == cleanupBatchSize);
+        if (total > 0) {
+            logger.info("Purged {} sent and dead outbox messages", total);
+        }
+    }
+}
@@ -1,94 +1,80 @@
 package com.saiduokamara.portfolio.model.service;
 
+import com.saiduokamara.portfolio.model.domain.EmailOutboxMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Builds outbound emails and queues them in the outbox; EmailDispatcher does the actual SMTP delivery
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
+    private static final String VERIFICATION_SUBJECT = "Verify Your Email Address - Portfolio App";
+
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxService outboxService;
 
     @Value("${frontend.url:http://localhost:3000}")
     private String frontendUrl;
 
-    @Async
     public void sendVerificationEmail(String to, String token) {
-        try {
-            String verificationUrl = frontendUrl + "/email-verification?token=" + token;
+        outboxService.enqueue(to, VERIFICATION_SUBJECT, verificationBody(token));
+        logger.info("Verification email queued for: {}", to);
+    }
 
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject("Verify Your Email Address - Portfolio App");
-            message.setText(
-                    "Welcome to Portfolio App!\n\n" +
-                            "Please click the link below to verify your email address:\n\n" +
-                            verificationUrl + "\n\n" +
-                            "This link will expire in 24 hours.\n\n" +
-                            "If you didn't create an account, please ignore this email.\n\n" +
-                            "Best regards,\n" +
-                            "Portfolio App Team"
-            );
+    // Bulk import: recipient -> raw token, queued in one batch
+    public void sendVerificationEmails(Map<String, String> tokensByRecipient) {
+        List<EmailOutboxMessage> messages = new ArrayList<>(tokensByRecipient.size());
+        tokensByRecipient.forEach((to, token) ->
+                messages.add(new EmailOutboxMessage(to, VERIFICATION_SUBJECT, verificationBody(token))));
+        outboxService.enqueueAll(messages);
+        logger.info("Verification emails queued for {} recipients", messages.size());
+    }
 
-            mailSender.send(message);
-            logger.info("Verification email sent successfully to: {}", to);
-        } catch (Exception e) {
-            logger.error("Failed to send verification email to {}: {}", to, e.getMessage());
-        }
+    private String verificationBody(String token) {
+        String verificationUrl = frontendUrl + "/email-verification?token=" + token;
+
+        return "Welcome to Portfolio App!\n\n" +
+                "Please click the link below to verify your email address:\n\n" +
+                verificationUrl + "\n\n" +
+                "This link will expire in 24 hours.\n\n" +
+                "If you didn't create an account, please ignore this email.\n\n" +
+                "Best regards,\n" +
+                "Portfolio App Team";
     }
 
-    @Async
     public void sendPasswordResetEmail(String to, String token) {
-        try {
-            String resetUrl = frontendUrl + "/reset-password?token=" + token;
-
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject("Reset Your Password - Portfolio App");
-            message.setText(
-                    "You have requested to reset your password.\n\n" +
-                            "Please click the link below to reset your password:\n\n" +
-                            resetUrl + "\n\n" +
-                            "This link will expire in 1 hour.\n\n" +
-                            "If you didn't request a password reset, please ignore this email.\n\n" +
-                            "Best regards,\n" +
-                            "Portfolio App Team"
-            );
+        String resetUrl = frontendUrl + "/reset-password?token=" + token;
 
-            mailSender.send(message);
-            logger.info("Password reset email sent successfully to: {}", to);
-        } catch (Exception e) {
-            logger.error("Failed to send password reset email to {}: {}", to, e.getMessage());
-        }
+        outboxService.enqueue(to, "Reset Your Password - Portfolio App",
+                "You have requested to reset your password.\n\n" +
+                        "Please click the link below to reset your password:\n\n" +
+                        resetUrl + "\n\n" +
+                        "This link will expire in 1 hour.\n\n" +
+                        "If you didn't request a password reset, please ignore this email.\n\n" +
+                        "Best regards,\n" +
+                        "Portfolio App Team"
+        );
+        logger.info("Password reset email queued for: {}", to);
     }
 
-    @Async
     public void sendWelcomeEmail(String to, String fullName) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject("Welcome to Portfolio App!");
-            message.setText(
-                    "Hello " + fullName + ",\n\n" +
-                            "Welcome to Portfolio App! Your account has been successfully verified.\n\n" +
-                            "You can now login and start using all the features of our application.\n\n" +
-                            "If you have any questions, feel free to contact us.\n\n" +
-                            "Best regards,\n" +
-                            "Portfolio App Team"
-            );
-
-            mailSender.send(message);
-            logger.info("Welcome email sent successfully to: {}", to);
-        } catch (Exception e) {
-            logger.error("Failed to send welcome email to {}: {}", to, e.getMessage());
-        }
+        outboxService.enqueue(to, "Welcome to Portfolio App!",
+                "Hello " + fullName + ",\n\n" +
+                        "Welcome to Portfolio App! Your account has been successfully verified.\n\n" +
+                        "You can now login and start using all the features of our application.\n\n" +
+                        "If you have any questions, feel free to contact us.\n\n" +
+                        "Best regards,\n" +
+                        "Portfolio App Team"
+        );
+        logger.info("Welcome email queued for: {}", to);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.saiduokamara.portfolio.model.service;
+
+// Unknown, expired, revoked or replayed refresh token; the client has to log in again
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
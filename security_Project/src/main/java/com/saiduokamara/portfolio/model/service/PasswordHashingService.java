@@ -0,0 +1,216 @@
+package com.saiduokamara.portfolio.model.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs every BCrypt encode/match on a fixed-size pool with a bounded queue, so a login
+ * burst can use at most app.hashing.threads cores. When the queue is full, or a hash
+ * waits longer than app.hashing.timeout-ms, callers get a PasswordHashingUnavailableException
+ * immediately instead of piling up behind the pool.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final long QUEUE_FULL_BACKOFF_MS = 20;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.hashing.threads:0}") // 0 = one thread per available core
+    private int threads;
+
+    @Value("${app.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${app.hashing.retry-after-seconds:2}")
+    private int retryAfterSeconds;
+
+    @Value("${app.hashing.bulk-parallelism:0}") // 0 = half the pool
+    private int bulkParallelism;
+
+    // Hashed at startup with the current settings; unknown emails are checked against it so that
+    // they cost exactly as much as a wrong password
+    private String dummyHash;
+
+    private ThreadPoolExecutor executor;
+    private Timer encodeTimer;
+    private Timer matchTimer;
+    private Timer waitTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        encodeTimer = hashTimer("encode");
+        matchTimer = hashTimer("match");
+        waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time a caller waits for a hash, including queueing")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("password.hashing.rejected")
+                .register(meterRegistry);
+
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+
+        logger.info("Password hashing pool started with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Hashes a batch for bulk imports, in order. At most app.hashing.bulk-parallelism hashes are
+     * in flight at a time, so logins keep the rest of the pool, and when the queue is full the batch
+     * waits for room instead of failing: an import is slowed by a login burst, never the other way round.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int parallelism = bulkParallelism > 0 ? bulkParallelism : Math.max(1, executor.getCorePoolSize() / 2);
+        Semaphore inFlight = new Semaphore(parallelism);
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                inFlight.acquire();
+                futures.add(submitWhenQueued(() -> {
+                    try {
+                        return encodeTimer.recordCallable(() -> passwordEncoder.encode(rawPassword));
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            List<String> hashes = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Checks a password against a stored hash. A null hash (unknown email or password-less account)
+     * is still checked against a dummy hash and returns false, so the caller pays the same cost either way.
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            execute(matchTimer, () -> passwordEncoder.matches(rawPassword, dummyHash));
+            return false;
+        }
+        return execute(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // True when the hash was made with weaker settings than the current ones
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private Timer hashTimer(String operation) {
+        return Timer.builder("password.hashing.duration")
+                .description("CPU time of a single password hash")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private <T> T execute(Timer timer, Callable<T> hash) {
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(hash));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw unavailable();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            rejectedCounter.increment();
+            throw unavailable();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> Future<T> submitWhenQueued(Callable<T> hash) throws InterruptedException {
+        while (true) {
+            try {
+                return executor.submit(hash);
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown()) {
+                    throw e;
+                }
+                TimeUnit.MILLISECONDS.sleep(QUEUE_FULL_BACKOFF_MS);
+            }
+        }
+    }
+
+    private PasswordHashingUnavailableException unavailable() {
+        return new PasswordHashingUnavailableException(
+                "Server is busy, please try again shortly", retryAfterSeconds);
+    }
+}
@@ -0,0 +1,16 @@
+package com.saiduokamara.portfolio.model.service;
+
+// Thrown when the password-hashing pool is saturated; controllers map it to 503 with Retry-After
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public PasswordHashingUnavailableException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
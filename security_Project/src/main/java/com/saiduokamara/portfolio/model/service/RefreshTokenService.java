@@ -0,0 +1,118 @@
+package com.saiduokamara.portfolio.model.service;
+
+import com.saiduokamara.portfolio.model.dao.RefreshTokenRepository;
+import com.saiduokamara.portfolio.model.dao.UserRepository;
+import com.saiduokamara.portfolio.model.domain.RefreshToken;
+import com.saiduokamara.portfolio.model.domain.User;
+import com.saiduokamara.portfolio.util.JwtUtil;
+import com.saiduokamara.portfolio.util.OpaqueTokens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens. The client holds 256 random bits; the server keeps only their
+ * SHA-256, so a leaked table cannot be replayed. Every refresh marks the presented token used and
+ * issues a successor in the same family; presenting a used token again means it was copied. Reuse
+ * then ends every session of the user, on all devices and not only the token's own family, access
+ * tokens included, since the copy may have been made anywhere. No BCrypt is involved: a refresh
+ * is one indexed read and two writes.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${jwt.refresh.expiration:86400000}") // 24 hours in milliseconds
+    private long refreshExpiration;
+
+    @Value("${jwt.refresh.remember-me-expiration:604800000}") // 7 days in milliseconds
+    private long rememberMeRefreshExpiration;
+
+    public record RotatedTokens(String accessToken, String refreshToken, long expiresInSeconds) {
+    }
+
+    // Starts a new family on login
+    public String issue(Long userId, boolean rememberMe) {
+        return save(userRepository.getReferenceById(userId), UUID.randomUUID(), rememberMe);
+    }
+
+    // Commits the revocation of the user's sessions even though the caller gets an exception
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public RotatedTokens rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current.getRevokedAt() != null || current.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException("Refresh token expired or revoked");
+        }
+        if (current.getUsedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            // A copied refresh token may have been used to mint access tokens too, so those go as well
+            User user = current.getUser();
+            tokenRevocationService.revokeAll(user.getId(), user.getEmail());
+            logger.warn("Refresh token reuse for user {}, revoked all sessions", user.getId());
+            throw new InvalidRefreshTokenException("Refresh token reuse detected");
+        }
+
+        User user = current.getUser();
+        if (!user.isEnabled()) {
+            throw new InvalidRefreshTokenException("Account is disabled");
+        }
+        String next = save(user, current.getFamilyId(), current.isRememberMe());
+        return new RotatedTokens(jwtUtil.generateToken(user.getEmail(), user.getRole()), next,
+                jwtUtil.getExpirationSeconds());
+    }
+
+    // Logout ends the session on every device that shares this login's family
+    public void revoke(String rawToken) {
+        refreshTokenRepository.revokeFamilyOf(hash(rawToken), LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String save(User user, UUID familyId, boolean rememberMe) {
+        String rawToken = OpaqueTokens.generate();
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setUser(user);
+        token.setRememberMe(rememberMe);
+        token.setExpiresAt(LocalDateTime.now().plus(
+                Duration.ofMillis(rememberMe ? rememberMeRefreshExpiration : refreshExpiration)));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        return OpaqueTokens.sha256Hex(rawToken);
+    }
+}
@@ -0,0 +1,156 @@
+package com.saiduokamara.portfolio.model.service;
+
+import com.saiduokamara.portfolio.model.dao.RefreshTokenRepository;
+import com.saiduokamara.portfolio.util.JwtPrincipal;
+import com.saiduokamara.portfolio.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation of access tokens before their exp. Writes go to the token_revocations table; every node
+ * keeps the rows that can still matter (those younger than the access-token lifetime) in two concurrent
+ * maps and re-reads only recent rows on a short poll, so the check in JwtAuthenticationFilter is a map
+ * lookup and never a query. Another node's revocation takes effect within jwt.revocation.poll-interval-ms;
+ * this node's own immediately.
+ */
+@Service
+public class TokenRevocationService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Re-read on every poll so rows committed late by a slow transaction are not skipped
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // subject -> tokens issued before this instant are revoked
+    private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+    // jti -> the token's exp, after which the entry is dropped
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile Instant lastPoll;
+
+    // Runs after Flyway has migrated and before the web server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        refresh();
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        if (principal.tokenId() != null && revokedTokens.containsKey(principal.tokenId())) {
+            return true;
+        }
+        Instant cutoff = revokedBefore.get(principal.email());
+        return cutoff != null && (principal.issuedAt() == null || principal.issuedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Ends every session of a user: access tokens issued so far and all refresh token families.
+     * iat only has second precision, so the cutoff is rounded up; a token issued in the same second
+     * as the revocation is revoked as well and its holder has to log in again.
+     */
+    @Transactional
+    public void revokeAll(Long userId, String email) {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        jdbcTemplate.update(
+                "INSERT INTO token_revocations (subject, revoked_at, expires_at) VALUES (?, ?, ?)",
+                email, Timestamp.from(cutoff), Timestamp.from(cutoff.plusSeconds(jwtUtil.getExpirationSeconds())));
+        refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+        revokedBefore.merge(email, cutoff, TokenRevocationService::later);
+        logger.info("Revoked all tokens of user {}", userId);
+    }
+
+    // Bulk role change or delete: the same as revokeAll for each user, in two statements
+    @Transactional
+    public void revokeAll(Map<Long, String> emailsById) {
+        if (emailsById.isEmpty()) {
+            return;
+        }
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        Timestamp revokedAt = Timestamp.from(cutoff);
+        Timestamp expiresAt = Timestamp.from(cutoff.plusSeconds(jwtUtil.getExpirationSeconds()));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO token_revocations (subject, revoked_at, expires_at) VALUES (?, ?, ?)",
+                new ArrayList<>(emailsById.values()), emailsById.size(), (ps, email) -> {
+                    ps.setString(1, email);
+                    ps.setTimestamp(2, revokedAt);
+                    ps.setTimestamp(3, expiresAt);
+                });
+        refreshTokenRepository.revokeAllForUsers(emailsById.keySet(), LocalDateTime.now());
+        emailsById.values().forEach(email -> revokedBefore.merge(email, cutoff, TokenRevocationService::later));
+        logger.info("Revoked all tokens of {} users", emailsById.size());
+    }
+
+    // Logout: only the presented access token, for the rest of its lifetime
+    public void revoke(JwtPrincipal principal) {
+        if (principal.tokenId() == null) {
+            return;
+        }
+        jdbcTemplate.update(
+                "INSERT INTO token_revocations (token_id, revoked_at, expires_at) VALUES (?, ?, ?)",
+                principal.tokenId(), Timestamp.from(Instant.now()), Timestamp.from(principal.expiresAt()));
+        revokedTokens.put(principal.tokenId(), principal.expiresAt());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval-ms:5000}")
+    public void refresh() {
+        Instant now = Instant.now();
+        Instant oldestRelevant = now.minusSeconds(jwtUtil.getExpirationSeconds());
+        Instant since = lastPoll == null || lastPoll.minus(POLL_OVERLAP).isBefore(oldestRelevant)
+                ? oldestRelevant
+                : lastPoll.minus(POLL_OVERLAP);
+
+        jdbcTemplate.query(
+                "SELECT subject, token_id, revoked_at, expires_at FROM token_revocations "
+                        + "WHERE revoked_at >= ? AND expires_at > ?",
+                rs -> {
+                    String subject = rs.getString("subject");
+                    if (subject != null) {
+                        revokedBefore.merge(subject, rs.getTimestamp("revoked_at").toInstant(), TokenRevocationService::later);
+                    } else {
+                        revokedTokens.put(rs.getString("token_id"), rs.getTimestamp("expires_at").toInstant());
+                    }
+                },
+                Timestamp.from(since), Timestamp.from(now));
+        lastPoll = now;
+
+        // Tokens issued before these cutoffs have expired on their own by now
+        revokedBefore.values().removeIf(cutoff -> cutoff.isBefore(oldestRelevant));
+        revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM token_revocations WHERE expires_at < ?", Timestamp.from(Instant.now()));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired token revocations", deleted);
+        }
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,230 @@
+package com.saiduokamara.portfolio.model.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saiduokamara.portfolio.model.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-process read-through cache of users by id and by normalized email (Caffeine, W-TinyLFU eviction,
+ * bounded by app.user-cache.maximum-size and app.user-cache.ttl-seconds). Entries are immutable snapshots
+ * and every hit returns a fresh detached User, so callers can modify what they get without touching the
+ * cache. Unknown emails are cached too, which makes the "exists?" then "register" sequence one query.
+ * <p>
+ * UserService evicts on every write, again after the transaction commits, and through the optional
+ * {@link UserCacheInvalidationBroadcaster} for other instances; the TTL bounds staleness for anything
+ * that slips past. A load that overlaps an eviction is not cached. Hit/miss counters are published as
+ * cache.* metrics tagged cache=users-by-id and cache=users-by-email.
+ */
+@Component
+public class UserCache {
+
+    // Email index value for "no such user"
+    private static final long ABSENT = -1L;
+
+    private record Snapshot(Long id, String email, String fullName, String password, String role,
+                            boolean enabled, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static Snapshot of(User user) {
+            return new Snapshot(user.getId(), user.getEmail(), user.getFullName(), user.getPassword(),
+                    user.getRole(), user.isEnabled(), user.getCreatedAt(), user.getUpdatedAt());
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setEmail(email);
+            user.setFullName(fullName);
+            user.setPassword(password);
+            user.setRole(role);
+            user.setEnabled(enabled);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(updatedAt);
+            return user;
+        }
+    }
+
+    @Value("${app.user-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.user-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // None by default: a single instance needs no broadcast
+    @Autowired(required = false)
+    private UserCacheInvalidationBroadcaster broadcaster;
+
+    private Cache<Long, Snapshot> byId;
+    private Cache<String, Long> idByEmail;
+
+    // Bumped by every eviction; a load that started before the bump does not get cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        idByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users-by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "users-by-email");
+    }
+
+    public Optional<User> findById(Long id, Function<Long, Optional<User>> loader) {
+        if (byId == null || id == null) {
+            return loader.apply(id);
+        }
+        Snapshot cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached.toUser());
+        }
+        return load(() -> loader.apply(id), null);
+    }
+
+    // The email must already be normalized
+    public Optional<User> findByEmail(String email, Function<String, Optional<User>> loader) {
+        if (idByEmail == null || email == null) {
+            return loader.apply(email);
+        }
+        Long id = idByEmail.getIfPresent(email);
+        if (id != null) {
+            if (id == ABSENT) {
+                return Optional.empty();
+            }
+            Snapshot cached = byId.getIfPresent(id);
+            if (cached != null && email.equals(cached.email())) {
+                return Optional.of(cached.toUser());
+            }
+        }
+        return load(() -> loader.apply(email), email);
+    }
+
+    /**
+     * Drops the user from this instance now and again once the surrounding transaction has completed,
+     * so a reader cannot re-cache the pre-commit row in between, then tells the other instances.
+     * Pass every email the user had or now has.
+     */
+    public void evict(Long id, String... emails) {
+        evictLocal(id, emails);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictLocal(id, emails);
+                    broadcast(id, emails);
+                }
+            });
+        } else {
+            broadcast(id, emails);
+        }
+    }
+
+    // Also the entry point for invalidations received from other instances
+    public void evictLocal(Long id, String... emails) {
+        generation.incrementAndGet();
+        if (byId == null) {
+            return;
+        }
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        for (String email : emails) {
+            if (email != null) {
+                idByEmail.invalidate(email);
+            }
+        }
+    }
+
+    // Bulk writes that touch users this instance cannot name one by one
+    public void evictAll() {
+        evictAllLocal();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictAllLocal();
+                    if (broadcaster != null) {
+                        broadcaster.publishAll();
+                    }
+                }
+            });
+        } else if (broadcaster != null) {
+            broadcaster.publishAll();
+        }
+    }
+
+    public void evictAllLocal() {
+        generation.incrementAndGet();
+        if (byId != null) {
+            byId.invalidateAll();
+            idByEmail.invalidateAll();
+        }
+    }
+
+    private Optional<User> load(Supplier<Optional<User>> loader, String email) {
+        long stamp = generation.get();
+        Optional<User> loaded = loader.get();
+        if (generation.get() != stamp) {
+            return loaded;
+        }
+        Long id = loaded.map(User::getId).orElse(null);
+        String cachedEmail = loaded.map(User::getEmail).orElse(email);
+        loaded.ifPresentOrElse(user -> {
+            Snapshot snapshot = Snapshot.of(user);
+            byId.put(snapshot.id(), snapshot);
+            idByEmail.put(snapshot.email(), snapshot.id());
+        }, () -> {
+            if (email != null) {
+                idByEmail.put(email, ABSENT);
+            }
+        });
+        // An eviction may have landed between the check and the puts; it would not have seen these
+        // entries, so take them back out
+        if (generation.get() != stamp) {
+            if (id != null) {
+                byId.invalidate(id);
+            }
+            if (cachedEmail != null) {
+                idByEmail.invalidate(cachedEmail);
+            }
+        }
+        return loaded;
+    }
+
+    private void broadcast(Long id, String... emails) {
+        if (broadcaster != null) {
+            broadcaster.publish(id, Arrays.stream(emails).filter(Objects::nonNull).toList());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.saiduokamara.portfolio.model.service;
+
+import java.util.List;
+
+/**
+ * Optional hook for multi-instance deployments: define a bean of this type to forward {@link UserCache}
+ * evictions to the other instances (Postgres LISTEN/NOTIFY, Redis pub/sub, a message broker), and call
+ * {@link UserCache#evictLocal} or {@link UserCache#evictAllLocal} on each instance that receives one.
+ * Without it, other instances serve a changed user for at most app.user-cache.ttl-seconds.
+ */
+public interface UserCacheInvalidationBroadcaster {
+
+    // Called after the change has committed
+    void publish(Long userId, List<String> emails);
+
+    void publishAll();
+}
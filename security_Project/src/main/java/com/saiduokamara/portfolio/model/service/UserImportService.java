@@ -0,0 +1,352 @@
+package com.saiduokamara.portfolio.model.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.saiduokamara.portfolio.model.domain.User;
+import com.saiduokamara.portfolio.model.dto.CreateUserRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user import from a CSV (header row with email, fullName, password and optionally role) or
+ * NDJSON upload. Rows are read and validated as the body streams in and written in windows of
+ * app.import.batch-size: one query for emails that are already taken, parallel hashing on the
+ * password pool, then one batch insert with tokens and verification emails (see UserService.createUsers).
+ * Every input row gets exactly one NDJSON result line, flushed as its window completes, so memory
+ * stays at one window whatever the size of the upload.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    // BCrypt ignores everything past 72 bytes, so longer passwords would be silently truncated
+    private static final int MAX_PASSWORD_BYTES = 72;
+
+    public enum Status {
+        CREATED, INVALID, DUPLICATE, FAILED
+    }
+
+    // line is the 1-based line of the upload; id is set for CREATED rows, error for all others
+    public record RowResult(int line, String email, Status status, Long id, String error) {
+    }
+
+    private record Row(int line, String email, String fullName, String password, String role) {
+    }
+
+    /** The upload format, picked from the request's content type. */
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-rows:100000}")
+    private int maxRows;
+
+    /**
+     * Reads the header (CSV) so that a malformed upload is rejected with a 400 before the report
+     * starts streaming; the rows are only read by {@link RowReader#importTo}.
+     */
+    public RowReader open(InputStream body, Format format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (format == Format.NDJSON) {
+            return new RowReader(reader, null);
+        }
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Empty upload");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(stripBom(header));
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        for (String required : List.of("email", "fullName", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain email, fullName and password; missing " + required);
+            }
+        }
+        return new RowReader(reader, columns);
+    }
+
+    /** An opened upload; reading it runs the import and writes the report. */
+    public class RowReader {
+
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns; // null for NDJSON
+        private int line;
+        private int recordLine; // where the current record starts
+
+        private RowReader(BufferedReader reader, Map<String, Integer> columns) {
+            this.reader = reader;
+            this.columns = columns;
+            this.line = columns != null ? 1 : 0;
+        }
+
+        public void importTo(OutputStream report) throws IOException {
+            ObjectWriter writer = objectMapper.writerFor(RowResult.class);
+            Map<Status, Integer> totals = new LinkedHashMap<>();
+            // Emails seen earlier in this upload, so a repeat is a DUPLICATE rather than a conflict at insert
+            Set<String> seen = new HashSet<>();
+            List<RowResult> results = new ArrayList<>(batchSize);
+            List<Row> window = new ArrayList<>(batchSize);
+            int rows = 0;
+
+            String text;
+            while ((text = nextRecord()) != null) {
+                if (text.isBlank()) {
+                    continue;
+                }
+                if (++rows > maxRows) {
+                    results.add(new RowResult(recordLine, null, Status.FAILED, null,
+                            "Upload exceeds " + maxRows + " rows; the rest was not read"));
+                    break;
+                }
+                Row row;
+                try {
+                    row = columns != null ? csvRow(recordLine, text) : ndjsonRow(recordLine, text);
+                } catch (IllegalArgumentException e) {
+                    results.add(new RowResult(recordLine, null, Status.INVALID, null, e.getMessage()));
+                    continue;
+                }
+                String error = validate(row);
+                if (error != null) {
+                    results.add(new RowResult(recordLine, row.email(), Status.INVALID, null, error));
+                } else if (!seen.add(row.email())) {
+                    results.add(new RowResult(recordLine, row.email(), Status.DUPLICATE, null, "Repeated in this upload"));
+                } else {
+                    window.add(row);
+                }
+
+                if (window.size() >= batchSize) {
+                    results.addAll(createWindow(window));
+                    window.clear();
+                    flush(results, writer, report, totals);
+                }
+            }
+            results.addAll(createWindow(window));
+            flush(results, writer, report, totals);
+            logger.info("User import finished: {}", totals);
+        }
+
+        // One logical record: a line, or several for a CSV field quoted across line breaks
+        private String nextRecord() throws IOException {
+            String text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            recordLine = ++line;
+            if (columns != null) {
+                while (hasOpenQuote(text)) {
+                    String next = reader.readLine();
+                    if (next == null) {
+                        break;
+                    }
+                    line++;
+                    text = text + "\n" + next;
+                }
+            }
+            return text;
+        }
+
+        private Row csvRow(int line, String text) {
+            List<String> fields = parseCsvLine(text);
+            return new Row(line,
+                    User.normalizeEmail(field(fields, "email")),
+                    trimToNull(field(fields, "fullName")),
+                    field(fields, "password"),
+                    role(field(fields, "role")));
+        }
+
+        private String field(List<String> fields, String name) {
+            Integer index = columns.get(name);
+            return index != null && index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    private Row ndjsonRow(int line, String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Not a JSON object");
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Not a JSON object");
+        }
+        return new Row(line,
+                User.normalizeEmail(node.path("email").asText(null)),
+                trimToNull(node.path("fullName").asText(null)),
+                node.path("password").asText(null),
+                role(node.path("role").asText(null)));
+    }
+
+    // Same rules as a single create, plus a password, which the import needs to hash
+    private String validate(Row row) {
+        CreateUserRequest request = new CreateUserRequest();
+        request.setEmail(row.email());
+        request.setFullName(row.fullName());
+        Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+        }
+        if (row.password() == null || row.password().isEmpty()) {
+            return "Password is required";
+        }
+        if (row.password().getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            return "Password must be at most " + MAX_PASSWORD_BYTES + " bytes";
+        }
+        if (!User.ROLES.contains(row.role())) {
+            return "Unknown role: " + row.role();
+        }
+        return null;
+    }
+
+    private List<RowResult> createWindow(List<Row> window) {
+        if (window.isEmpty()) {
+            return List.of();
+        }
+        List<RowResult> results = new ArrayList<>(window.size());
+        try {
+            // Checked before hashing so that re-running an import does not pay BCrypt for every existing row
+            Set<String> taken = userService.existingEmails(window.stream().map(Row::email).toList());
+            List<Row> fresh = new ArrayList<>(window.size());
+            for (Row row : window) {
+                if (taken.contains(row.email())) {
+                    results.add(new RowResult(row.line(), row.email(), Status.DUPLICATE, null, "User with this email already exists"));
+                } else {
+                    fresh.add(row);
+                }
+            }
+
+            List<String> hashes = passwordHashingService.encodeAll(fresh.stream().map(Row::password).toList());
+            List<User> users = new ArrayList<>(fresh.size());
+            for (int i = 0; i < fresh.size(); i++) {
+                Row row = fresh.get(i);
+                User user = new User();
+                user.setEmail(row.email());
+                user.setFullName(row.fullName());
+                user.setPassword(hashes.get(i));
+                user.setRole(row.role());
+                users.add(user);
+            }
+
+            Map<String, Long> created = userService.createUsers(users);
+            for (Row row : fresh) {
+                Long id = created.get(row.email());
+                results.add(id != null
+                        ? new RowResult(row.line(), row.email(), Status.CREATED, id, null)
+                        : new RowResult(row.line(), row.email(), Status.DUPLICATE, null, "User with this email already exists"));
+            }
+        } catch (RuntimeException e) {
+            // The window's transaction rolled back as a whole; later windows still run
+            logger.warn("User import window of {} rows failed", window.size(), e);
+            results.clear();
+            for (Row row : window) {
+                results.add(new RowResult(row.line(), row.email(), Status.FAILED, null, "Import failed: " + e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private static void flush(List<RowResult> results, ObjectWriter writer, OutputStream report,
+                              Map<Status, Integer> totals) throws IOException {
+        // Rows that failed validation are reported ahead of their window's inserts; restore upload order
+        results.sort((a, b) -> Integer.compare(a.line(), b.line()));
+        for (RowResult result : results) {
+            report.write(writer.writeValueAsBytes(result));
+            report.write('\n');
+            totals.merge(result.status(), 1, Integer::sum);
+        }
+        report.flush();
+        results.clear();
+    }
+
+    private static String role(String role) {
+        return role == null || role.isBlank() ? "USER" : role.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String stripBom(String header) {
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+
+    private static boolean hasOpenQuote(String text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 == 1;
+    }
+
+    // RFC 4180: comma separated, fields optionally quoted, "" is a literal quote inside a quoted field
+    static List<String> parseCsvLine(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -1,38 +1,97 @@
 package com.saiduokamara.portfolio.model.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.saiduokamara.portfolio.model.domain.User;
+import com.saiduokamara.portfolio.model.dao.FederatedIdentityRepository;
 import com.saiduokamara.portfolio.model.dao.UserRepository;
+import com.saiduokamara.portfolio.model.dto.LoginView;
+import com.saiduokamara.portfolio.model.dto.OAuthUserView;
+import com.saiduokamara.portfolio.model.dto.UserPage;
+import com.saiduokamara.portfolio.model.dto.UserResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
 @Service
 @Transactional
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private FederatedIdentityRepository federatedIdentityRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserTokenService userTokenService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("passwordUpgradeExecutor")
+    private TaskExecutor passwordUpgradeExecutor;
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     public User registerUser(User user) {
         try {
-            System.out.println("🔵 USER SERVICE: Starting registration for: " + user.getEmail());
+            logger.debug("Starting registration for {}", user.getEmail());
 
             // Check if user already exists
-            Optional<User> existingUser = userRepository.findByEmail(user.getEmail());
+            Optional<User> existingUser = findByEmail(user.getEmail());
             if (existingUser.isPresent()) {
-                System.out.println("🔵 USER SERVICE: User already exists with email: " + user.getEmail());
+                logger.debug("Registration rejected, {} already exists", user.getEmail());
                 throw new RuntimeException("User with this email already exists");
             }
 
@@ -43,168 +102,242 @@ public class UserService {
 
             // Encode password
             String rawPassword = user.getPassword();
-            user.setPassword(passwordEncoder.encode(rawPassword));
-            System.out.println("🔵 USER SERVICE: Password encoded successfully");
+            user.setPassword(passwordHashingService.encode(rawPassword));
 
-            // Generate verification token
-            String verificationToken = UUID.randomUUID().toString();
-            user.setVerificationToken(verificationToken);
             user.setEnabled(false); // User must verify email first
 
-            // Save user
-            User savedUser = userRepository.save(user);
-            System.out.println("🔵 USER SERVICE: User saved with ID: " + savedUser.getId());
+            // Save user, then issue the verification token against its id. With a sequence id the
+            // INSERT waits for the flush, and the token row's foreign key needs it in the table.
+            User savedUser = userRepository.saveAndFlush(user);
+            userCache.evict(savedUser.getId(), savedUser.getEmail());
+            String verificationToken = userTokenService.issue(savedUser.getId(), UserTokenService.Purpose.VERIFY);
+            logger.info("Registered user {}", savedUser.getId());
 
-            // Send verification email
-            try {
-                emailService.sendVerificationEmail(savedUser.getEmail(), verificationToken);
-                System.out.println("✅ Verification email sent successfully");
-            } catch (Exception e) {
-                System.err.println("⚠️ Verification email could not be sent: " + e.getMessage());
-                // Don't throw exception - user is created but email failed
-            }
+            // Queued in this transaction: if the outbox insert fails, the registration rolls back with it
+            emailService.sendVerificationEmail(savedUser.getEmail(), verificationToken);
 
             return savedUser;
         } catch (Exception e) {
-            System.out.println("🔵 USER SERVICE: Error during registration: " + e.getMessage());
-            e.printStackTrace();
+            logger.debug("Registration failed: {}", e.getMessage());
             throw e;
         }
     }
 
+    // Single use: the token is deleted whether or not it had expired. The welcome email is queued in
+    // the same transaction, so a failure to queue it rolls the verification back and the link stays valid.
     public boolean verifyUser(String token) {
-        try {
-            Optional<User> userOpt = userRepository.findByVerificationToken(token);
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                user.setEnabled(true);
-                user.setVerificationToken(null);
-                userRepository.save(user);
-
-                // Send welcome email (best-effort)
-                try {
-                    emailService.sendWelcomeEmail(user.getEmail(), user.getFullName());
-                } catch (Exception e) {
-                    System.err.println("⚠️ Welcome email could not be sent: " + e.getMessage());
-                }
-
-                System.out.println("✅ User verified: " + user.getEmail());
-                return true;
-            }
-            return false;
-        } catch (Exception e) {
-            System.err.println("❌ Error verifying user token: " + e.getMessage());
-            e.printStackTrace();
+        Optional<UserTokenService.Redeemed> verified = userTokenService.verifyEmail(token)
+                .filter(UserTokenService.Redeemed::applied);
+        if (verified.isEmpty()) {
             return false;
         }
+        userCache.evict(verified.get().userId(), verified.get().email());
+        emailService.sendWelcomeEmail(verified.get().email(), verified.get().fullName());
+        logger.info("Verified user {}", verified.get().userId());
+        return true;
     }
 
     public void initiatePasswordReset(String email) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<User> userOpt = findByEmail(email);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            String resetToken = UUID.randomUUID().toString();
-            user.setResetToken(resetToken);
-            user.setResetTokenExpiry(LocalDateTime.now().plusHours(1));
-            userRepository.save(user);
+            String resetToken = userTokenService.issue(user.getId(), UserTokenService.Purpose.RESET);
 
             emailService.sendPasswordResetEmail(user.getEmail(), resetToken);
-            System.out.println("✅ Password reset initiated for: " + email);
+            logger.info("Password reset initiated for user {}", user.getId());
         } else {
             throw new RuntimeException("User not found with email: " + email);
         }
     }
 
+    // Checks the token with one indexed read, hashes only for a live token and outside any transaction,
+    // then consumes the token and stores the hash in one statement
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean resetPassword(String token, String newPassword) {
-        Optional<User> userOpt = userRepository.findByResetToken(token);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            if (user.getResetTokenExpiry().isAfter(LocalDateTime.now())) {
-                user.setPassword(passwordEncoder.encode(newPassword));
-                user.setResetToken(null);
-                user.setResetTokenExpiry(null);
-                userRepository.save(user);
-                System.out.println("✅ Password reset successful for: " + user.getEmail());
-                return true;
-            } else {
-                throw new RuntimeException("Reset token has expired");
-            }
+        if (!userTokenService.isResettable(token)) {
+            return false;
+        }
+        Optional<UserTokenService.Redeemed> reset =
+                userTokenService.resetPassword(token, passwordHashingService.encode(newPassword));
+        if (reset.isEmpty()) {
+            return false;
         }
-        return false;
+        if (!reset.get().applied()) {
+            throw new RuntimeException("Reset token has expired");
+        }
+        userCache.evict(reset.get().userId(), reset.get().email());
+        tokenRevocationService.revokeAll(reset.get().userId(), reset.get().email());
+        logger.info("Password reset for user {}", reset.get().userId());
+        return true;
     }
 
-    public Optional<User> login(String email, String password) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
+    // One projection query and exactly one hash whatever the outcome, so response time does not reveal
+    // whether the email exists. Runs outside a transaction, and with open-in-view off the projection
+    // query's connection is back in the pool before hashing starts.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<LoginView> login(String email, String password) {
+        Optional<LoginView> candidate = userRepository.findLoginViewByEmail(User.normalizeEmail(email));
+        // Unknown emails and OAuth-only accounts have no hash and are checked against the dummy one
+        String hash = candidate.map(LoginView::getPassword).orElse(null);
+        if (!passwordHashingService.matches(password, hash)) {
+            return Optional.empty();
+        }
 
-            // Check if user is verified
-            if (!user.isEnabled()) {
-                throw new RuntimeException("Please verify your email before logging in");
-            }
+        LoginView user = candidate.get();
+        // Only revealed to someone who knows the password
+        if (!user.isEnabled()) {
+            throw new RuntimeException("Please verify your email before logging in");
+        }
 
-            // Check password
-            if (passwordEncoder.matches(password, user.getPassword())) {
-                return userOpt;
-            }
+        if (passwordHashingService.needsRehash(hash)) {
+            passwordUpgradeExecutor.execute(() -> upgradePasswordHash(user.getId(), hash, password));
         }
-        return Optional.empty();
+        return candidate;
     }
 
-    public User registerOAuthUser(String email, String fullName) {
+    // Re-hashes with the current cost after a successful login, off the request thread. Dropped when the
+    // upgrade pool is full; the old hash still matches, so the next login tries again.
+    private void upgradePasswordHash(Long userId, String oldHash, String password) {
         try {
-            System.out.println("🔵 USER SERVICE: Registering OAuth user: " + email);
-
-            // Check if user already exists
-            Optional<User> existingUser = userRepository.findByEmail(email);
-            if (existingUser.isPresent()) {
-                System.out.println("🔵 USER SERVICE: OAuth user already exists: " + email);
-                return existingUser.get();
+            if (userRepository.upgradePasswordHash(userId, oldHash, passwordHashingService.encode(password)) == 1) {
+                // The email index resolves through the id entry, so evicting by id is enough
+                userCache.evict(userId);
+                logger.info("Upgraded password hash for user {}", userId);
             }
+        } catch (Exception e) {
+            logger.warn("Password hash upgrade for user {} failed", userId, e);
+        }
+    }
 
-            // Create new OAuth user
-            User user = new User();
-            user.setEmail(email);
-            user.setFullName(fullName != null ? fullName : "OAuth User");
-
-            // Generate a random password for OAuth users
-            String randomPassword = UUID.randomUUID().toString();
-            user.setPassword(passwordEncoder.encode(randomPassword));
+    // Federated sign-in: no password, no verification email, and no hashing.
+    // Returning users cost one indexed read; a first sign-in costs one upsert statement.
+    public OAuthUserView registerOAuthUser(String provider, String providerSubject, String email, String fullName) {
+        return federatedIdentityRepository.findLinkedUser(provider, providerSubject)
+                .orElseGet(() -> {
+                    OAuthUserView linked = federatedIdentityRepository.upsertLinkedUser(
+                            provider, providerSubject, User.normalizeEmail(email),
+                            fullName != null ? fullName : "OAuth User");
+                    // May have created the user, replacing a cached "no such email"
+                    userCache.evict(linked.getId(), linked.getEmail());
+                    return linked;
+                });
+    }
 
-            user.setRole("USER");
-            user.setEnabled(true); // OAuth users are automatically verified
+    // CRUD methods
 
-            User savedUser = userRepository.save(user);
-            System.out.println("✅ USER SERVICE: OAuth user registered successfully: " + savedUser.getId());
+    // Keyset pagination: the cursor carries the last row's sort key, so each page is an index range
+    // scan of at most limit + 1 rows projected straight into UserResponse
+    @Transactional(readOnly = true)
+    public UserPage findUsersPage(String sort, boolean descending, String cursor, int limit) {
+        Pageable page = PageRequest.of(0, limit + 1);
+        List<UserResponse> users;
+        try {
+            if ("createdAt".equals(sort)) {
+                LocalDateTime createdAt = descending ? LocalDateTime.of(9999, 12, 31, 23, 59)
+                        : LocalDateTime.of(1970, 1, 1, 0, 0);
+                long id = descending ? Long.MAX_VALUE : 0L;
+                if (cursor != null) {
+                    String[] parts = decodeCursor(cursor).split("\\|", 2);
+                    createdAt = LocalDateTime.parse(parts[0]);
+                    id = Long.parseLong(parts[1]);
+                }
+                users = descending
+                        ? userRepository.findPageByCreatedAtDesc(createdAt, id, page)
+                        : userRepository.findPageByCreatedAtAsc(createdAt, id, page);
+            } else if ("id".equals(sort)) {
+                long id = cursor != null ? Long.parseLong(decodeCursor(cursor)) : (descending ? Long.MAX_VALUE : 0L);
+                users = descending
+                        ? userRepository.findPageByIdDesc(id, page)
+                        : userRepository.findPageByIdAsc(id, page);
+            } else {
+                throw new IllegalArgumentException("Unsupported sort field: " + sort);
+            }
+        } catch (DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
 
-            return savedUser;
-        } catch (Exception e) {
-            System.err.println("❌ USER SERVICE: Error registering OAuth user: " + e.getMessage());
-            throw e;
+        String nextCursor = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            UserResponse last = users.get(limit - 1);
+            nextCursor = encodeCursor("createdAt".equals(sort)
+                    ? last.getCreatedAt() + "|" + last.getId()
+                    : String.valueOf(last.getId()));
         }
+        return new UserPage(users, nextCursor);
     }
 
-    // CRUD methods
-    public List<User> findAllUsers() {
-        List<User> users = userRepository.findAll();
-        System.out.println("🔵 USER SERVICE: Found " + users.size() + " users in database");
-        return users;
+    // Hash algorithm and BCrypt cost per stored password, to follow rehash-on-login progress.
+    // 'unprefixed' are hashes from before the {id} prefix, 'none' are OAuth-only accounts.
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> passwordHashCostReport() {
+        return jdbcTemplate.queryForList(
+                "SELECT coalesce(substring(password from '^\\{([^}]*)\\}'), " +
+                        "CASE WHEN password IS NULL THEN 'none' ELSE 'unprefixed' END) AS algorithm, " +
+                        "CAST(substring(password from '\\$2[aby]?\\$([0-9]{2})\\$') AS INTEGER) AS cost, " +
+                        "count(*) AS users " +
+                        "FROM users GROUP BY 1, 2 ORDER BY 1, 2");
+    }
+
+    // Streams every user as NDJSON straight from a forward-only JDBC cursor; memory stays flat
+    // regardless of table size because rows are written and dropped one at a time
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream out) {
+        ObjectWriter writer = objectMapper.writerFor(UserResponse.class);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, full_name, email, role, created_at FROM users ORDER BY id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            UserResponse row = new UserResponse(
+                    rs.getLong("id"),
+                    rs.getString("full_name"),
+                    rs.getString("email"),
+                    rs.getString("role"),
+                    createdAt != null ? createdAt.toLocalDateTime() : null
+            );
+            try {
+                out.write(writer.writeValueAsBytes(row));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
+    private static String encodeCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    // Cached reads join a caller's transaction but do not start one, so a hit needs no connection
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User findUserById(Long id) {
-        return userRepository.findById(id).orElse(null);
+        return userCache.findById(id, userRepository::findById).orElse(null);
     }
 
     public User updateUser(Long id, User userDetails) {
         return userRepository.findById(id).map(user -> {
+            // Tokens carry the email and role, so changing either (or the password) ends existing sessions
+            String previousEmail = user.getEmail();
+            String previousRole = user.getRole();
+            boolean passwordChanged = false;
+
             // Update email if provided and different
-            if (userDetails.getEmail() != null && !userDetails.getEmail().equals(user.getEmail())) {
+            String newEmail = User.normalizeEmail(userDetails.getEmail());
+            if (newEmail != null && !newEmail.equals(user.getEmail())) {
                 // Check if new email already exists
-                Optional<User> existingUser = userRepository.findByEmail(userDetails.getEmail());
+                Optional<User> existingUser = userRepository.findByEmail(newEmail);
                 if (existingUser.isPresent() && !existingUser.get().getId().equals(id)) {
                     throw new RuntimeException("Email already exists");
                 }
-                user.setEmail(userDetails.getEmail());
+                user.setEmail(newEmail);
             }
 
             // Update full name if provided
@@ -214,7 +347,8 @@ public class UserService {
 
             // Update password only if provided and not empty
             if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
-                user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+                user.setPassword(passwordHashingService.encode(userDetails.getPassword()));
+                passwordChanged = true;
             }
 
             // Update role if provided
@@ -222,58 +356,187 @@ public class UserService {
                 user.setRole(userDetails.getRole());
             }
 
+            if (passwordChanged || !Objects.equals(previousEmail, user.getEmail())
+                    || !Objects.equals(previousRole, user.getRole())) {
+                tokenRevocationService.revokeAll(id, previousEmail);
+            }
+            userCache.evict(id, previousEmail, user.getEmail());
             return userRepository.save(user);
         }).orElse(null);
     }
 
-    // ✅ NEW: updateUser(User user) for direct updates
-    public User updateUser(User user) {
-        return userRepository.save(user);
-    }
-
 
     public void deleteUser(Long id) {
+        // Linked OAuth identities and refresh tokens go with the row (ON DELETE CASCADE);
+        // access tokens have to be revoked explicitly
+        userRepository.findById(id).ifPresent(user -> {
+            tokenRevocationService.revokeAll(id, user.getEmail());
+            userCache.evict(id, user.getEmail());
+        });
         userRepository.deleteById(id);
     }
 
+    // Bulk import: which of these normalized emails are taken, in one query
+    @Transactional(readOnly = true)
+    public Set<String> existingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email = ANY(?)", String.class, (Object) emails.toArray(String[]::new)));
+    }
+
+    /**
+     * Bulk import of users whose emails are normalized and passwords already hashed: one JDBC batch
+     * for the rows, one for their verification tokens and one for the emails, all in one transaction.
+     * Ids are reserved up front in the same blocks Hibernate uses, so the batch needs no generated keys back.
+     * A row whose email was taken in the meantime is skipped (ON CONFLICT) rather than failing the batch.
+     * Returns email -> id of the users actually created.
+     */
+    public Map<String, Long> createUsers(List<User> users) {
+        if (users.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = allocateIds(users.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, email, full_name, password, role, is_enabled, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, FALSE, ?, ?) ON CONFLICT DO NOTHING",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        User user = users.get(i);
+                        ps.setLong(1, ids.get(i));
+                        ps.setString(2, user.getEmail());
+                        ps.setString(3, user.getFullName());
+                        ps.setString(4, user.getPassword());
+                        ps.setString(5, user.getRole());
+                        ps.setTimestamp(6, now);
+                        ps.setTimestamp(7, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                });
+
+        // The ids are fresh from the sequence, so every row that has one is a row this batch inserted
+        Set<Long> inserted = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE id = ANY(?)", Long.class, (Object) ids.toArray(Long[]::new)));
+        Map<String, Long> created = new LinkedHashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            if (inserted.contains(ids.get(i))) {
+                created.put(users.get(i).getEmail(), ids.get(i));
+            }
+        }
+
+        Map<Long, String> tokens = userTokenService.issueAll(List.copyOf(created.values()), UserTokenService.Purpose.VERIFY);
+        Map<String, String> tokensByEmail = new LinkedHashMap<>();
+        created.forEach((email, id) -> tokensByEmail.put(email, tokens.get(id)));
+        emailService.sendVerificationEmails(tokensByEmail);
+
+        // Replaces cached "no such email" entries
+        created.forEach((email, id) -> userCache.evict(id, email));
+        logger.info("Imported {} of {} users", created.size(), users.size());
+        return created;
+    }
+
+    // Pooled blocks of users_id_seq: each nextval reserves the ID_ALLOCATION_SIZE ids ending at its value
+    private List<Long> allocateIds(int count) {
+        List<Long> blockEnds = jdbcTemplate.queryForList(
+                "SELECT nextval('users_id_seq') FROM generate_series(1, ?)",
+                Long.class, (count + User.ID_ALLOCATION_SIZE - 1) / User.ID_ALLOCATION_SIZE);
+        List<Long> ids = new ArrayList<>(count);
+        for (long end : blockEnds) {
+            for (long id = end - User.ID_ALLOCATION_SIZE + 1; id <= end && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    // One statement for the whole set. Tokens carry the role, so users whose role actually changed
+    // lose their sessions. Returns the ids that exist.
+    public List<Long> changeRoles(Collection<Long> ids, String role) {
+        Map<Long, String> changed = new LinkedHashMap<>();
+        List<Long> updated = new ArrayList<>();
+        jdbcTemplate.query("""
+                        WITH target AS (
+                            SELECT id, role FROM users WHERE id = ANY(?) FOR UPDATE
+                        )
+                        UPDATE users u SET role = ?, updated_at = ?
+                        FROM target t
+                        WHERE u.id = t.id
+                        RETURNING u.id, u.email, t.role IS DISTINCT FROM u.role AS changed
+                        """,
+                (RowCallbackHandler) rs -> {
+                    updated.add(rs.getLong("id"));
+                    if (rs.getBoolean("changed")) {
+                        changed.put(rs.getLong("id"), rs.getString("email"));
+                    }
+                    userCache.evict(rs.getLong("id"), rs.getString("email"));
+                },
+                ids.toArray(Long[]::new), role, Timestamp.valueOf(LocalDateTime.now()));
+        tokenRevocationService.revokeAll(changed);
+        logger.info("Changed role of {} users to {}", changed.size(), role);
+        return updated;
+    }
+
+    // One statement for the whole set; linked OAuth identities, refresh and email tokens cascade,
+    // and access tokens are revoked. Returns the ids that existed.
+    public List<Long> deleteUsers(Collection<Long> ids) {
+        Map<Long, String> deleted = new LinkedHashMap<>();
+        jdbcTemplate.query("DELETE FROM users WHERE id = ANY(?) RETURNING id, email",
+                (RowCallbackHandler) rs -> {
+                    deleted.put(rs.getLong("id"), rs.getString("email"));
+                    userCache.evict(rs.getLong("id"), rs.getString("email"));
+                },
+                (Object) ids.toArray(Long[]::new));
+        tokenRevocationService.revokeAll(deleted);
+        logger.info("Deleted {} users", deleted.size());
+        return List.copyOf(deleted.keySet());
+    }
+
     // Additional utility methods
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean userExists(String email) {
-        return userRepository.findByEmail(email).isPresent();
+        return findByEmail(email).isPresent();
     }
 
     public long countUsers() {
         return userRepository.count();
     }
 
-    public List<User> findUsersByRole(String role) {
-        return userRepository.findAll().stream()
-                .filter(user -> role.equals(user.getRole()))
-                .toList();
+    @Transactional(readOnly = true)
+    public Page<UserResponse> findUsersByRole(String role, Pageable pageable) {
+        return userRepository.findPageByRole(role, pageable);
     }
 
-    public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+    @Transactional(readOnly = true)
+    public Page<UserResponse> findUsersByEnabled(boolean enabled, Pageable pageable) {
+        return userRepository.findPageByEnabled(enabled, pageable);
     }
 
-    public Optional<User> findByVerificationToken(String token) {
-        return userRepository.findByVerificationToken(token);
+    @Transactional(readOnly = true)
+    public Page<UserResponse> findUsersCreatedBetween(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return userRepository.findPageByCreatedAtBetween(from, to, pageable);
     }
 
-    public Optional<User> findByResetToken(String token) {
-        return userRepository.findByResetToken(token);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<User> findByEmail(String email) {
+        return userCache.findByEmail(User.normalizeEmail(email), userRepository::findByEmail);
     }
 
     public void resendVerificationEmail(String email) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<User> userOpt = findByEmail(email);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             if (user.isEnabled()) {
                 throw new RuntimeException("Email is already verified");
             }
 
-            String verificationToken = UUID.randomUUID().toString();
-            user.setVerificationToken(verificationToken);
-            userRepository.save(user);
+            String verificationToken = userTokenService.issue(user.getId(), UserTokenService.Purpose.VERIFY);
 
             emailService.sendVerificationEmail(user.getEmail(), verificationToken);
         } else {
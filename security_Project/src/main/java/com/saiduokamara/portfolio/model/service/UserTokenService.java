@@ -0,0 +1,160 @@
+package com.saiduokamara.portfolio.model.service;
+
+import com.saiduokamara.portfolio.util.OpaqueTokens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Single-use email verification and password reset tokens in the user_tokens table. The mailed link
+ * carries 256 random bits; the table keeps only their SHA-256 as primary key. Redeeming a token deletes
+ * it and updates the user in one statement, so a verify or reset is one round trip, bypasses the
+ * persistence context, and of two concurrent requests with one link exactly one succeeds: the second
+ * DELETE waits for the first to commit and then finds no row.
+ */
+@Service
+@Transactional
+public class UserTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTokenService.class);
+
+    public enum Purpose {
+        // Lifetimes match what the emails tell the user
+        VERIFY(Duration.ofHours(24)),
+        RESET(Duration.ofHours(1));
+
+        private final Duration lifetime;
+
+        Purpose(Duration lifetime) {
+            this.lifetime = lifetime;
+        }
+    }
+
+    // applied is false when the token existed but had expired; it is deleted all the same
+    public record Redeemed(long userId, String email, String fullName, boolean applied) {
+    }
+
+    private static final String REDEEM = """
+            WITH consumed AS (
+                DELETE FROM user_tokens WHERE token_hash = ? AND purpose = ?
+                RETURNING user_id, expires_at
+            ), updated AS (
+                UPDATE users u SET %s, updated_at = ?
+                FROM consumed c
+                WHERE u.id = c.user_id AND c.expires_at > ?
+                RETURNING u.id, u.email, u.full_name
+            )
+            SELECT c.user_id, upd.email, upd.full_name, upd.id IS NOT NULL AS applied
+            FROM consumed c LEFT JOIN updated upd ON upd.id = c.user_id
+            """;
+
+    private static final String VERIFY_EMAIL = REDEEM.formatted("is_enabled = TRUE");
+    private static final String RESET_PASSWORD = REDEEM.formatted("password = ?");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.tokens.cleanup-batch-size:1000}")
+    private int cleanupBatchSize;
+
+    // A new link replaces any earlier one for the same purpose; returns the raw token for the email
+    public String issue(Long userId, Purpose purpose) {
+        String rawToken = OpaqueTokens.generate();
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("DELETE FROM user_tokens WHERE user_id = ? AND purpose = ?", userId, purpose.name());
+        jdbcTemplate.update(
+                "INSERT INTO user_tokens (token_hash, user_id, purpose, created_at, expires_at) VALUES (?, ?, ?, ?, ?)",
+                OpaqueTokens.sha256Hex(rawToken), userId, purpose.name(),
+                Timestamp.valueOf(now), Timestamp.valueOf(now.plus(purpose.lifetime)));
+        return rawToken;
+    }
+
+    // Bulk import: one delete and one JDBC batch for the whole set; user id -> raw token
+    public Map<Long, String> issueAll(List<Long> userIds, Purpose purpose) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> rawTokens = new LinkedHashMap<>();
+        userIds.forEach(userId -> rawTokens.put(userId, OpaqueTokens.generate()));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp expiresAt = Timestamp.valueOf(now.toLocalDateTime().plus(purpose.lifetime));
+        jdbcTemplate.update("DELETE FROM user_tokens WHERE user_id = ANY(?) AND purpose = ?",
+                userIds.toArray(Long[]::new), purpose.name());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO user_tokens (token_hash, user_id, purpose, created_at, expires_at) VALUES (?, ?, ?, ?, ?)",
+                new ArrayList<>(rawTokens.entrySet()), rawTokens.size(), (ps, token) -> {
+                    ps.setString(1, OpaqueTokens.sha256Hex(token.getValue()));
+                    ps.setLong(2, token.getKey());
+                    ps.setString(3, purpose.name());
+                    ps.setTimestamp(4, now);
+                    ps.setTimestamp(5, expiresAt);
+                });
+        return rawTokens;
+    }
+
+    // Empty if the token is unknown, already used or not a verification token
+    public Optional<Redeemed> verifyEmail(String rawToken) {
+        LocalDateTime now = LocalDateTime.now();
+        return redeem(VERIFY_EMAIL, OpaqueTokens.sha256Hex(rawToken), Purpose.VERIFY.name(),
+                Timestamp.valueOf(now), Timestamp.valueOf(now));
+    }
+
+    // Read-only pre-check so that a made-up or stale reset link is turned away before the caller pays for
+    // a hash; the redeem below still decides, as the token may be used or expire in between
+    @Transactional(readOnly = true)
+    public boolean isResettable(String rawToken) {
+        return !jdbcTemplate.queryForList(
+                "SELECT 1 FROM user_tokens WHERE token_hash = ? AND purpose = ? AND expires_at > ?",
+                Integer.class, OpaqueTokens.sha256Hex(rawToken), Purpose.RESET.name(),
+                Timestamp.valueOf(LocalDateTime.now())).isEmpty();
+    }
+
+    // The new hash is computed by the caller beforehand, so no hashing happens inside the statement's transaction
+    public Optional<Redeemed> resetPassword(String rawToken, String passwordHash) {
+        LocalDateTime now = LocalDateTime.now();
+        return redeem(RESET_PASSWORD, OpaqueTokens.sha256Hex(rawToken), Purpose.RESET.name(),
+                passwordHash, Timestamp.valueOf(now), Timestamp.valueOf(now));
+    }
+
+    private Optional<Redeemed> redeem(String sql, Object... args) {
+        List<Redeemed> redeemed = jdbcTemplate.query(sql,
+                (rs, rowNum) -> new Redeemed(rs.getLong("user_id"), rs.getString("email"),
+                        rs.getString("full_name"), rs.getBoolean("applied")),
+                args);
+        return redeemed.stream().findFirst();
+    }
+
+    // Small batches keep each delete's locks and WAL short when a large backlog has expired
+    @Scheduled(fixedDelayString = "${app.tokens.cleanup-interval-ms:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deleteExpired() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM user_tokens WHERE token_hash IN "
+                            + "(SELECT token_hash FROM user_tokens WHERE expires_at < ? LIMIT ?)",
+                    now, cleanupBatchSize);
+            total += deleted;
+        } while (deleted == cleanupBatchSize);
+        if (total > 0) {
+            logger.info("Deleted {} expired verification and reset tokens", total);
+        }
+    }
+}
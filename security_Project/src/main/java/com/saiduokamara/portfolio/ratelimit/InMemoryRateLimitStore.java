@@ -0,0 +1,60 @@
+package com.saiduokamara.portfolio.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * GCRA buckets as one AtomicLong per key (the theoretical arrival time), updated with a CAS loop,
+ * so concurrent requests never take a lock. Keys live in a size-bounded Caffeine cache: a flood of
+ * distinct IPs or emails evicts the least useful buckets instead of growing the heap, and an idle
+ * bucket expires once it would have refilled anyway.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    public InMemoryRateLimitStore(long maximumKeys, Duration idleExpiry) {
+        this(maximumKeys, idleExpiry, System::nanoTime);
+    }
+
+    InMemoryRateLimitStore(long maximumKeys, Duration idleExpiry, LongSupplier nanoClock) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitPolicy policy) {
+        AtomicLong theoreticalArrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long interval = policy.emissionIntervalNanos();
+        long tolerance = policy.burstToleranceNanos();
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = theoreticalArrival.get();
+            long start = Math.max(current, now);
+            if (start - now > tolerance) {
+                return start - now - tolerance;
+            }
+            if (theoreticalArrival.compareAndSet(current, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    public long estimatedSize() {
+        return buckets.estimatedSize();
+    }
+
+    // Runs pending evictions now instead of on a later access
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.saiduokamara.portfolio.ratelimit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GCRA state shared by every instance through the rate_limit_buckets table. Each decision is one
+ * upsert that only advances the bucket when the request is allowed, so concurrent nodes cannot
+ * both spend the last token. Times are epoch microseconds, which assumes the nodes' clocks are in sync.
+ */
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final String ACQUIRE = """
+            INSERT INTO rate_limit_buckets (bucket_key, tat) VALUES (?, ?)
+            ON CONFLICT (bucket_key) DO UPDATE
+                SET tat = GREATEST(rate_limit_buckets.tat, ?) + ?
+                WHERE GREATEST(rate_limit_buckets.tat, ?) - ? <= ?
+            RETURNING tat
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitPolicy policy) {
+        long now = nowMicros();
+        long interval = TimeUnit.NANOSECONDS.toMicros(policy.emissionIntervalNanos());
+        long tolerance = TimeUnit.NANOSECONDS.toMicros(policy.burstToleranceNanos());
+
+        List<Long> allowed = jdbcTemplate.queryForList(ACQUIRE, Long.class,
+                key, now + interval, now, interval, now, now, tolerance);
+        if (!allowed.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> theoreticalArrival = jdbcTemplate.queryForList(
+                "SELECT tat FROM rate_limit_buckets WHERE bucket_key = ?", Long.class, key);
+        long waitMicros = theoreticalArrival.isEmpty() ? interval : theoreticalArrival.get(0) - now - tolerance;
+        return TimeUnit.MICROSECONDS.toNanos(Math.max(waitMicros, 1));
+    }
+
+    // A bucket whose theoretical arrival time has passed is full again, so its row carries no information
+    @Scheduled(fixedDelayString = "${app.rate-limit.jdbc.cleanup-interval-ms:60000}")
+    public void deleteRefilledBuckets() {
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE tat < ?", nowMicros());
+    }
+
+    private static long nowMicros() {
+        return TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    }
+}
\ No newline at end of file
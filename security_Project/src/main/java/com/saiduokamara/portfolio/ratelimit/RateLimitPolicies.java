@@ -0,0 +1,9 @@
+package com.saiduokamara.portfolio.ratelimit;
+
+/**
+ * The configured policies, see app.rate-limit.* in application.properties.
+ */
+public record RateLimitPolicies(RateLimitPolicy loginPerIp, RateLimitPolicy loginPerEmail,
+                                RateLimitPolicy emailPerIp, RateLimitPolicy emailPerAddress,
+                                RateLimitPolicy resetPerIp) {
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.saiduokamara.portfolio.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * A GCRA token bucket: on average {@code limit} requests per {@code period}, of which up to
+ * {@code burst} may arrive back to back.
+ */
+public record RateLimitPolicy(String name, int limit, Duration period, int burst) {
+
+    public RateLimitPolicy {
+        if (limit <= 0 || burst <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Invalid rate limit policy " + name);
+        }
+    }
+
+    // One token is added back every emission interval
+    public long emissionIntervalNanos() {
+        return period.toNanos() / limit;
+    }
+
+    // How far ahead of now the bucket's theoretical arrival time may run before requests are refused
+    public long burstToleranceNanos() {
+        return emissionIntervalNanos() * (burst - 1);
+    }
+}
\ No newline at end of file
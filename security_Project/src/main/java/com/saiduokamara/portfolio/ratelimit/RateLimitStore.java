@@ -0,0 +1,16 @@
+package com.saiduokamara.portfolio.ratelimit;
+
+/**
+ * Where bucket state lives. The default keeps it in this JVM (InMemoryRateLimitStore); with
+ * several instances behind a load balancer app.rate-limit.store=jdbc shares it through Postgres
+ * (JdbcRateLimitStore) so an attacker cannot multiply their budget by the number of nodes.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket for the key.
+     *
+     * @return 0 when the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(String key, RateLimitPolicy policy);
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.saiduokamara.portfolio.ratelimit;
+
+import com.saiduokamara.portfolio.model.domain.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the endpoints that cost a BCrypt hash or send an email, per client IP and, where the
+ * request names one, per target email address. Controllers call it before any DB or hashing work; a non-zero result is the
+ * Retry-After in seconds. Policies and the store are built in RateLimitConfig.
+ */
+@Component
+public class RateLimiter {
+
+    @Autowired
+    private RateLimitStore store;
+
+    @Autowired
+    private RateLimitPolicies policies;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    public long checkLogin(String clientIp, String email) {
+        return check(policies.loginPerIp(), clientIp, policies.loginPerEmail(), email);
+    }
+
+    // forgot-password and resend-verification share one budget, both send an email
+    public long checkEmailSend(String clientIp, String email) {
+        return check(policies.emailPerIp(), clientIp, policies.emailPerAddress(), email);
+    }
+
+    // reset-password has no email to key on, and each attempt with a live token costs a hash
+    public long checkPasswordReset(String clientIp) {
+        return check(policies.resetPerIp(), clientIp, null, null);
+    }
+
+    private long check(RateLimitPolicy ipPolicy, String clientIp, RateLimitPolicy emailPolicy, String email) {
+        if (!enabled) {
+            return 0;
+        }
+        long waitNanos = acquire(ipPolicy, clientIp);
+        if (waitNanos == 0 && email != null && !email.isBlank()) {
+            waitNanos = acquire(emailPolicy, User.normalizeEmail(email));
+        }
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private long acquire(RateLimitPolicy policy, String key) {
+        long waitNanos = store.tryAcquire(policy.name() + ":" + key, policy);
+        if (waitNanos > 0) {
+            Counter.builder("rate_limit.rejected")
+                    .description("Requests refused by the rate limiter")
+                    .tag("policy", policy.name())
+                    .register(meterRegistry)
+                    .increment();
+        }
+        return waitNanos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,291 @@
+package com.saiduokamara.portfolio.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ES256 signing keys shared by every instance through the signing_keys table. A successor key is
+ * created jwt.signing.publish-ahead-ms before it starts signing, so verifiers that cache the JWKS
+ * already know it by the time the first token carries its kid. Retired keys stay published until the
+ * last token they signed has expired. Signing and verification read an immutable in-memory snapshot
+ * that is rebuilt on a short poll; neither touches the database.
+ */
+@Component
+public class JwtKeyRing implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    public static final String ALGORITHM = "ES256";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int IV_LENGTH = 12;
+
+    // pg_advisory_xact_lock key serializing key rotation across instances
+    private static final long ROTATION_LOCK_ID = 0x6a776b73L; // "jwks"
+
+    public record SigningKey(String kid, PrivateKey privateKey) {
+    }
+
+    private record StoredKey(String kid, PublicKey publicKey, String encryptedPrivateKey, Instant activatesAt) {
+    }
+
+    private record Snapshot(SigningKey active, Map<String, PublicKey> publicKeys, Map<String, Object> jwks) {
+    }
+
+    // Only encrypts the private keys at rest; tokens are no longer signed with it
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Value("${jwt.expiration:900000}")
+    private long tokenLifetimeMillis;
+
+    @Value("${jwt.signing.rotation-period-ms:604800000}") // 7 days
+    private long rotationPeriodMillis;
+
+    @Value("${jwt.signing.publish-ahead-ms:3600000}") // 1 hour
+    private long publishAheadMillis;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private volatile Snapshot snapshot;
+
+    // Runs after Flyway has migrated and before the web server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (secret == null || secret.length() < 32) {
+            throw new IllegalStateException("jwt.secret must be at least 32 characters");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        refresh();
+    }
+
+    public SigningKey activeKey() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Signing keys have not been loaded");
+        }
+        return current.active();
+    }
+
+    // Null for an unknown kid
+    public PublicKey publicKey(String kid) {
+        Snapshot current = snapshot;
+        return current == null || kid == null ? null : current.publicKeys().get(kid);
+    }
+
+    // Pre-built RFC 7517 key set, served as is by the JWKS endpoint
+    public Map<String, Object> jwks() {
+        Snapshot current = snapshot;
+        return current == null ? Map.of("keys", List.of()) : current.jwks();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.signing.refresh-interval-ms:60000}")
+    public void refresh() {
+        Instant now = Instant.now();
+        rotateIfDue(now);
+        reload(now);
+    }
+
+    private void rotateIfDue(Instant now) {
+        Instant successorDue = now.minusMillis(rotationPeriodMillis).plusMillis(publishAheadMillis);
+        // Checked without the lock first, so the common case (nothing due) takes none
+        if (!rotationDue(successorDue)) {
+            return;
+        }
+
+        // Instances that find rotation due at the same moment queue on the advisory lock; each re-checks
+        // under it, in a statement that sees what the previous holder committed, so only one adds a successor
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", (RowCallbackHandler) rs -> {
+            }, ROTATION_LOCK_ID);
+            if (!rotationDue(successorDue)) {
+                return;
+            }
+            Timestamp newest = jdbcTemplate.queryForObject("SELECT MAX(activates_at) FROM signing_keys", Timestamp.class);
+
+            // The very first key signs right away; successors are published ahead of use
+            Instant activatesAt = newest == null ? now : now.plusMillis(publishAheadMillis);
+            KeyPair keyPair = generateKeyPair();
+            String kid = UUID.randomUUID().toString();
+            jdbcTemplate.update(
+                    "INSERT INTO signing_keys (kid, algorithm, public_key, private_key, created_at, activates_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    kid, ALGORITHM,
+                    Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()),
+                    encrypt(keyPair.getPrivate().getEncoded()),
+                    Timestamp.from(now), Timestamp.from(activatesAt));
+            logger.info("Created signing key {}, signing from {}", kid, activatesAt);
+        });
+    }
+
+    private boolean rotationDue(Instant successorDue) {
+        Timestamp newest = jdbcTemplate.queryForObject("SELECT MAX(activates_at) FROM signing_keys", Timestamp.class);
+        return newest == null || !newest.toInstant().isAfter(successorDue);
+    }
+
+    private void reload(Instant now) {
+        List<StoredKey> keys = jdbcTemplate.query(
+                "SELECT kid, public_key, private_key, activates_at FROM signing_keys ORDER BY activates_at, kid",
+                (rs, rowNum) -> new StoredKey(
+                        rs.getString("kid"),
+                        decodePublicKey(rs.getString("public_key")),
+                        rs.getString("private_key"),
+                        rs.getTimestamp("activates_at").toInstant()));
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("No signing keys in signing_keys");
+        }
+
+        // The newest key that has activated signs; before any has (clock skew), the earliest one does
+        int activeIndex = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            if (!keys.get(i).activatesAt().isAfter(now)) {
+                activeIndex = i;
+            }
+        }
+
+        // A key stopped signing when its successor activated; once a token lifetime has passed since,
+        // nothing it signed can still be valid
+        Instant retiredBefore = now.minusMillis(tokenLifetimeMillis).minus(Duration.ofMinutes(1));
+        List<String> stale = new ArrayList<>();
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            StoredKey key = keys.get(i);
+            if (i < activeIndex && keys.get(i + 1).activatesAt().isBefore(retiredBefore)) {
+                stale.add(key.kid());
+                continue;
+            }
+            publicKeys.put(key.kid(), key.publicKey());
+            jwks.add(toJwk(key.kid(), (ECPublicKey) key.publicKey()));
+        }
+
+        StoredKey active = keys.get(activeIndex);
+        snapshot = new Snapshot(
+                new SigningKey(active.kid(), decodePrivateKey(active.encryptedPrivateKey())),
+                Map.copyOf(publicKeys),
+                Map.of("keys", List.copyOf(jwks)));
+
+        for (String kid : stale) {
+            jdbcTemplate.update("DELETE FROM signing_keys WHERE kid = ?", kid);
+            logger.info("Deleted retired signing key {}", kid);
+        }
+    }
+
+    private static Map<String, Object> toJwk(String kid, ECPublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("x", coordinate(key.getW().getAffineX()));
+        jwk.put("y", coordinate(key.getW().getAffineY()));
+        return jwk;
+    }
+
+    // Unsigned, left-padded to the 32 bytes of a P-256 coordinate
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"), RANDOM);
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("EC P-256 not available", e);
+        }
+    }
+
+    private static PublicKey decodePublicKey(String encoded) {
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unreadable signing public key", e);
+        }
+    }
+
+    private PrivateKey decodePrivateKey(String encrypted) {
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(decrypt(encrypted)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unreadable signing private key; has jwt.secret changed?", e);
+        }
+    }
+
+    private String encrypt(byte[] plaintext) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey(), new GCMParameterSpec(128, iv));
+            byte[] ciphertext = cipher.doFinal(plaintext);
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + ciphertext.length)
+                    .put(iv).put(ciphertext).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM not available", e);
+        }
+    }
+
+    private byte[] decrypt(String encoded) throws GeneralSecurityException {
+        byte[] data = Base64.getDecoder().decode(encoded);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey(), new GCMParameterSpec(128, data, 0, IV_LENGTH));
+        return cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH);
+    }
+
+    // Derived rather than used directly, so the secret is never an AES key for anything else
+    private SecretKeySpec encryptionKey() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return new SecretKeySpec(mac.doFinal("jwt-signing-key-encryption".getBytes(StandardCharsets.UTF_8)), "AES");
+    }
+}
@@ -0,0 +1,8 @@
+package com.saiduokamara.portfolio.util;
+
+import java.time.Instant;
+
+// Immutable view of a token whose signature and expiry have already been verified.
+// tokenId is null for tokens issued before jti was added.
+public record JwtPrincipal(String email, String role, String tokenId, Instant issuedAt, Instant expiresAt) {
+}
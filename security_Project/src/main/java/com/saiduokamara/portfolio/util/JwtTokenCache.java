@@ -0,0 +1,110 @@
+package com.saiduokamara.portfolio.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opt-in cache of already verified bearer tokens, keyed by a SHA-256 digest of the raw token
+ * so the tokens themselves are never retained. Each entry lives at most jwt.cache.max-ttl-seconds
+ * and never past the token's own exp. Hit/miss/eviction counters are published as cache.* metrics
+ * tagged cache=jwt-tokens.
+ */
+@Component
+public class JwtTokenCache {
+
+    public record Entry(JwtPrincipal principal, List<GrantedAuthority> authorities) {
+    }
+
+    @Value("${jwt.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${jwt.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${jwt.cache.max-ttl-seconds:300}")
+    private long maxTtlSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        long maxTtlNanos = Duration.ofSeconds(maxTtlSeconds).toNanos();
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        long untilExpiry = Duration.between(Instant.now(), entry.principal().expiresAt()).toNanos();
+                        return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt-tokens");
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public Entry get(String token) {
+        if (cache == null) {
+            return null;
+        }
+        String key = digest(token);
+        Entry entry = cache.getIfPresent(key);
+        // Expiry is enforced by the cache already; this guards against timer granularity at the boundary
+        if (entry != null && !entry.principal().expiresAt().isAfter(Instant.now())) {
+            cache.invalidate(key);
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(String token, Entry entry) {
+        if (cache != null) {
+            cache.put(digest(token), entry);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,94 +1,100 @@
 package com.saiduokamara.portfolio.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
-    private String secret;
-
-    @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
+    // Access tokens are short-lived; sessions last as long as their refresh token (RefreshTokenService)
+    @Value("${jwt.expiration:900000}") // 15 minutes in milliseconds
     private Long expiration;
 
-    @Value("${jwt.remember-me-expiration:604800000}") // 7 days in milliseconds
-    private Long rememberMeExpiration;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    // Immutable and thread-safe, so it is built once instead of per call
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // Picks the key by kid from the in-memory ring; only ES256 is accepted, so a token
+                    // cannot pick a weaker algorithm (or HS256 keyed with the public key) in its header
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        if (!JwtKeyRing.ALGORITHM.equals(header.getAlgorithm())) {
+                            throw new UnsupportedJwtException("Unsupported JWT algorithm " + header.getAlgorithm());
+                        }
+                        PublicKey key = keyRing.publicKey(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String email, String role) {
-        return generateToken(email, role, false);
-    }
-
-    public String generateToken(String email, String role, boolean rememberMe) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
-        long expirationTime = rememberMe ? rememberMeExpiration : expiration;
-        return createToken(claims, email, expirationTime);
+        return createToken(claims, email, expiration);
+    }
+
+    public long getExpirationSeconds() {
+        return expiration / 1000;
     }
 
     private String createToken(Map<String, Object> claims, String subject, long expirationTime) {
+        long now = System.currentTimeMillis();
+        JwtKeyRing.SigningKey signingKey = keyRing.activeKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationTime))
+                .signWith(signingKey.privateKey(), SignatureAlgorithm.ES256)
                 .compact();
     }
 
-    public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Verifies the signature and expiry of a token exactly once and returns its principal.
+     * Throws a {@link io.jsonwebtoken.JwtException} (or IllegalArgumentException for blank input)
+     * when the token is malformed, tampered with or expired.
+     */
+    public JwtPrincipal parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        return new JwtPrincipal(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getId(),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()
+        );
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    public Boolean validateToken(String token, String email) {
-        final String extractedEmail = extractEmail(token);
-        return (extractedEmail.equals(email) && !isTokenExpired(token));
-    }
-
-    public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.saiduokamara.portfolio.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+// Random bearer tokens that are handed out once and only ever stored as their SHA-256
+public final class OpaqueTokens {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private OpaqueTokens() {
+    }
+
+    // 256 random bits, URL-safe so the token can go into a link as is
+    public static String generate() {
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+    }
+
+    // No salt or stretching needed: the input is random, not a password
+    public static String sha256Hex(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
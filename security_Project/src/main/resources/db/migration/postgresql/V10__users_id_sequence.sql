@@ -0,0 +1,14 @@
+-- User ids move from the identity column to a plain sequence that Hibernate allocates from in blocks
+-- of 50 (pooled optimizer: each nextval reserves the 50 ids ending at the returned value). Hibernate
+-- then knows an id before the INSERT and can batch inserts; with IDENTITY it had to run each one
+-- immediately to read the key back.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE users_id_seq INCREMENT BY 50 OWNED BY users.id;
+
+-- The first block starts right after the highest existing id
+SELECT setval('users_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
+
+-- Inserts in plain SQL (OAuth first sign-in, seeders) still get an id: the end of a fresh block,
+-- which no other writer will hand out
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_id_seq');
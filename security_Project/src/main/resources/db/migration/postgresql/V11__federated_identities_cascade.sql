@@ -0,0 +1,22 @@
+-- Deleting a user removes their linked provider accounts, as refresh_tokens and user_tokens already do.
+-- The existing key is named by Postgres (V2) or by Hibernate (ddl-auto=update databases), so it is
+-- looked up rather than dropped by name.
+DO $$
+DECLARE
+    fk_name TEXT;
+BEGIN
+    FOR fk_name IN
+        SELECT c.conname
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+        WHERE c.contype = 'f'
+          AND c.conrelid = 'federated_identities'::regclass
+          AND c.confrelid = 'users'::regclass
+          AND a.attname = 'user_id'
+    LOOP
+        EXECUTE format('ALTER TABLE federated_identities DROP CONSTRAINT %I', fk_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE federated_identities
+    ADD CONSTRAINT fk_federated_identities_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
@@ -0,0 +1,8 @@
+-- A sent message's body is cleared: it holds verification and reset links, which are credentials.
+-- Dead messages keep theirs for inspection until the retention purge deletes them.
+ALTER TABLE email_outbox ALTER COLUMN body DROP NOT NULL;
+
+UPDATE email_outbox SET body = NULL WHERE status = 'SENT';
+
+-- Lets the purge find old sent and dead rows without scanning the table
+CREATE INDEX idx_email_outbox_finished ON email_outbox (created_at) WHERE status IN ('SENT', 'DEAD');
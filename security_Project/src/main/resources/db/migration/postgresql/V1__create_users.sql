@@ -0,0 +1,16 @@
+-- Baseline: the users table as Hibernate's ddl-auto=update created it.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+CREATE TABLE users (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email              VARCHAR(255) NOT NULL,
+    full_name          VARCHAR(255),
+    password           VARCHAR(255) NOT NULL,
+    role               VARCHAR(255),
+    is_enabled         BOOLEAN      NOT NULL DEFAULT FALSE,
+    verification_token VARCHAR(255),
+    reset_token        VARCHAR(255),
+    reset_token_expiry TIMESTAMP(6),
+    created_at         TIMESTAMP(6),
+    updated_at         TIMESTAMP(6),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
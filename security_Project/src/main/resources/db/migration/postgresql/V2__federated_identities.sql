@@ -0,0 +1,15 @@
+-- OAuth-only accounts have no password
+ALTER TABLE users ALTER COLUMN password DROP NOT NULL;
+
+-- May already exist where ddl-auto=update created it
+CREATE TABLE IF NOT EXISTS federated_identities (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          BIGINT       NOT NULL REFERENCES users (id),
+    provider         VARCHAR(32)  NOT NULL,
+    provider_subject VARCHAR(255) NOT NULL,
+    created_at       TIMESTAMP(6),
+    last_login_at    TIMESTAMP(6),
+    CONSTRAINT uk_federated_identities_provider_subject UNIQUE (provider, provider_subject)
+);
+
+CREATE INDEX IF NOT EXISTS idx_federated_identities_user_id ON federated_identities (user_id);
@@ -0,0 +1,17 @@
+-- Verify/reset lookups only ever match rows that currently hold a token, so index just those rows
+CREATE INDEX IF NOT EXISTS idx_users_verification_token ON users (verification_token)
+    WHERE verification_token IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_users_reset_token ON users (reset_token)
+    WHERE reset_token IS NOT NULL;
+
+-- Admin filters and keyset pages (UserRepository.findPageBy*)
+CREATE INDEX IF NOT EXISTS idx_users_role ON users (role, id);
+CREATE INDEX IF NOT EXISTS idx_users_is_enabled ON users (is_enabled, id);
+
+UPDATE users SET created_at = COALESCE(updated_at, now()) WHERE created_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at, id);
+
+-- Emails are stored normalized to lower case; the expression index keeps them unique case-insensitively.
+-- Fails if the table already holds two addresses differing only by case; merge those accounts first.
+UPDATE users SET email = lower(email) WHERE email <> lower(email);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (lower(email));
@@ -0,0 +1,15 @@
+CREATE TABLE email_outbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient       VARCHAR(320) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    body            TEXT         NOT NULL,
+    status          VARCHAR(16)  NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6) NOT NULL,
+    sent_at         TIMESTAMP(6)
+);
+
+-- The dispatcher only ever scans due PENDING rows; sent and dead rows stay out of the index
+CREATE INDEX idx_email_outbox_due ON email_outbox (next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,6 @@
+-- Shared rate-limit state for app.rate-limit.store=jdbc (unused by the default in-memory store).
+-- UNLOGGED: losing buckets on a crash only resets the limits, and it avoids WAL on every login.
+CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key VARCHAR(320) PRIMARY KEY,
+    tat        BIGINT       NOT NULL -- GCRA theoretical arrival time, epoch microseconds
+);
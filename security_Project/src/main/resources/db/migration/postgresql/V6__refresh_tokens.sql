@@ -0,0 +1,19 @@
+-- Rotating refresh tokens. Only a SHA-256 of the token is stored; every rotation of one login
+-- shares a family_id, so reuse of an already rotated token can revoke the whole family.
+CREATE TABLE refresh_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash  VARCHAR(64)  NOT NULL,
+    family_id   UUID         NOT NULL,
+    user_id     BIGINT       NOT NULL,
+    remember_me BOOLEAN      NOT NULL DEFAULT FALSE,
+    created_at  TIMESTAMP(6) NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL,
+    used_at     TIMESTAMP(6),
+    revoked_at  TIMESTAMP(6),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_user_id ON refresh_tokens (user_id);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
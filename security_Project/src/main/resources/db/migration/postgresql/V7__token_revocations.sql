@@ -0,0 +1,14 @@
+-- Access-token revocations. A row either cuts off every token of one subject issued before revoked_at
+-- (password reset, deletion, role change) or a single token by its jti (logout). Nodes poll recent rows
+-- into memory; a row is useless once expires_at has passed, because every token it covers has expired too.
+CREATE TABLE token_revocations (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    subject    VARCHAR(255),
+    token_id   VARCHAR(36),
+    revoked_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT ck_token_revocations_target CHECK ((subject IS NULL) <> (token_id IS NULL))
+);
+
+CREATE INDEX idx_token_revocations_revoked_at ON token_revocations (revoked_at);
+CREATE INDEX idx_token_revocations_expires_at ON token_revocations (expires_at);
@@ -0,0 +1,13 @@
+-- ES256 key ring for access tokens, shared by every instance. A key is published in the JWKS from creation,
+-- signs from activates_at until its successor activates, and is deleted once the last token it signed has
+-- expired. The private key is AES-GCM encrypted with a key derived from jwt.secret.
+CREATE TABLE signing_keys (
+    kid          VARCHAR(36)  PRIMARY KEY,
+    algorithm    VARCHAR(10)  NOT NULL,
+    public_key   TEXT         NOT NULL, -- X.509 SubjectPublicKeyInfo, base64
+    private_key  TEXT         NOT NULL, -- IV followed by the encrypted PKCS#8 key, base64
+    created_at   TIMESTAMP(6) NOT NULL,
+    activates_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_signing_keys_activates_at ON signing_keys (activates_at);
@@ -0,0 +1,31 @@
+-- Email verification and password reset tokens move off the users row. Only a SHA-256 of the token is
+-- stored, as the primary key, so using a token is a single DELETE ... RETURNING on the key.
+CREATE TABLE user_tokens (
+    token_hash VARCHAR(64)  PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    purpose    VARCHAR(16)  NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_user_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_user_tokens_user_id ON user_tokens (user_id, purpose);
+CREATE INDEX idx_user_tokens_expires_at ON user_tokens (expires_at);
+
+-- Links already mailed keep working; verification tokens never expired before, so they get the 24 hours the mail promised
+INSERT INTO user_tokens (token_hash, user_id, purpose, created_at, expires_at)
+SELECT encode(sha256(convert_to(verification_token, 'UTF8')), 'hex'), id, 'VERIFY', now(), now() + INTERVAL '24 hours'
+FROM users
+WHERE verification_token IS NOT NULL;
+
+INSERT INTO user_tokens (token_hash, user_id, purpose, created_at, expires_at)
+SELECT encode(sha256(convert_to(reset_token, 'UTF8')), 'hex'), id, 'RESET', now(), reset_token_expiry
+FROM users
+WHERE reset_token IS NOT NULL AND reset_token_expiry > now();
+
+DROP INDEX IF EXISTS idx_users_verification_token;
+DROP INDEX IF EXISTS idx_users_reset_token;
+ALTER TABLE users
+    DROP COLUMN verification_token,
+    DROP COLUMN reset_token,
+    DROP COLUMN reset_token_expiry;
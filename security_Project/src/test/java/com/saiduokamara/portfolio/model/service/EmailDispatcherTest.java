@@ -0,0 +1,97 @@
+package com.saiduokamara.portfolio.model.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.saiduokamara.portfolio.model.domain.EmailOutboxMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Runs the dispatcher against an in-process GreenMail SMTP server instead of Gmail
+class EmailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = mock(EmailOutboxService.class);
+    }
+
+    @Test
+    void sendsWholeBatchOverSmtpAndMarksItSent() {
+        when(outboxService.claimBatch(50)).thenReturn(List.of(
+                message(1L, "first@example.com"),
+                message(2L, "second@example.com"),
+                message(3L, "third@example.com")));
+
+        dispatcherFor(ServerSetupTest.SMTP.getPort()).dispatch();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+        verify(outboxService).markSent(List.of(1L, 2L, 3L));
+        verify(outboxService, never()).markFailed(any(), any());
+    }
+
+    @Test
+    void unreachableServerReschedulesEveryMessage() {
+        when(outboxService.claimBatch(50)).thenReturn(List.of(
+                message(1L, "first@example.com"),
+                message(2L, "second@example.com")));
+
+        // Nothing listens on this port, so the connection itself fails
+        dispatcherFor(ServerSetupTest.SMTP.getPort() + 1000).dispatch();
+
+        verify(outboxService, times(2)).markFailed(any(EmailOutboxMessage.class), anyString());
+        verify(outboxService).markSent(List.of());
+    }
+
+    @Test
+    void emptyOutboxDoesNotTouchSmtp() {
+        when(outboxService.claimBatch(50)).thenReturn(List.of());
+
+        dispatcherFor(ServerSetupTest.SMTP.getPort()).dispatch();
+
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        verify(outboxService, never()).markSent(any());
+    }
+
+    private EmailDispatcher dispatcherFor(int smtpPort) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpPort);
+
+        EmailDispatcher dispatcher = new EmailDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "outboxService", outboxService);
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "mailExecutor", new SyncTaskExecutor());
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "concurrency", 1);
+        ReflectionTestUtils.setField(dispatcher, "from", "noreply@portfolio.test");
+        ReflectionTestUtils.invokeMethod(dispatcher, "init");
+        return dispatcher;
+    }
+
+    private static EmailOutboxMessage message(Long id, String recipient) {
+        EmailOutboxMessage message = new EmailOutboxMessage(recipient, "Subject " + id, "Body " + id);
+        message.setId(id);
+        return message;
+    }
+}
@@ -0,0 +1,204 @@
+package com.saiduokamara.portfolio.model.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the redeem statements against a real Postgres: the CTEs and the row locking they rely on are Postgres-specific
+class UserTokenServiceTest {
+
+    private static final int CONCURRENT_REQUESTS = 16;
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private UserTokenService userTokenService;
+    private long userId;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration/postgresql")
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM users");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (full_name, email, password, role, is_enabled, created_at, updated_at) "
+                        + "VALUES ('Token Test', 'token@example.com', 'old-hash', 'USER', FALSE, ?, ?) RETURNING id",
+                Long.class, now, now);
+
+        userTokenService = new UserTokenService();
+        ReflectionTestUtils.setField(userTokenService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(userTokenService, "cleanupBatchSize", 2);
+    }
+
+    @Test
+    void concurrentVerificationsOfOneLinkSucceedExactlyOnce() throws Exception {
+        String token = userTokenService.issue(userId, UserTokenService.Purpose.VERIFY);
+
+        List<Optional<UserTokenService.Redeemed>> results = concurrently(() -> userTokenService.verifyEmail(token));
+
+        assertThat(results).filteredOn(Optional::isPresent).hasSize(1);
+        UserTokenService.Redeemed winner = results.stream().flatMap(Optional::stream).findFirst().orElseThrow();
+        assertThat(winner.applied()).isTrue();
+        assertThat(winner.email()).isEqualTo("token@example.com");
+        assertThat(jdbcTemplate.queryForObject("SELECT is_enabled FROM users WHERE id = ?", Boolean.class, userId)).isTrue();
+        assertThat(tokenCount()).isZero();
+    }
+
+    @Test
+    void concurrentResetsStoreExactlyOneNewHash() throws Exception {
+        String token = userTokenService.issue(userId, UserTokenService.Purpose.RESET);
+
+        List<Callable<Optional<UserTokenService.Redeemed>>> requests = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            String hash = "new-hash-" + i;
+            requests.add(() -> userTokenService.resetPassword(token, hash).map(redeemed -> {
+                assertThat(redeemed.applied()).isTrue();
+                return redeemed;
+            }));
+        }
+        List<Optional<UserTokenService.Redeemed>> results = run(requests);
+
+        assertThat(results).filteredOn(Optional::isPresent).hasSize(1);
+        String stored = jdbcTemplate.queryForObject("SELECT password FROM users WHERE id = ?", String.class, userId);
+        assertThat(stored).startsWith("new-hash-");
+        assertThat(tokenCount()).isZero();
+    }
+
+    @Test
+    void expiredTokenIsConsumedWithoutTouchingTheUser() {
+        String token = userTokenService.issue(userId, UserTokenService.Purpose.VERIFY);
+        jdbcTemplate.update("UPDATE user_tokens SET expires_at = ?", Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+
+        Optional<UserTokenService.Redeemed> first = userTokenService.verifyEmail(token);
+
+        assertThat(first).isPresent();
+        assertThat(first.get().applied()).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT is_enabled FROM users WHERE id = ?", Boolean.class, userId)).isFalse();
+        assertThat(userTokenService.verifyEmail(token)).isEmpty();
+    }
+
+    @Test
+    void tokenOnlyWorksForItsPurpose() {
+        String token = userTokenService.issue(userId, UserTokenService.Purpose.RESET);
+
+        assertThat(userTokenService.verifyEmail(token)).isEmpty();
+        assertThat(userTokenService.resetPassword(token, "new-hash")).isPresent();
+    }
+
+    @Test
+    void resetPreCheckOnlyAcceptsLiveResetTokens() {
+        String verify = userTokenService.issue(userId, UserTokenService.Purpose.VERIFY);
+        String reset = userTokenService.issue(userId, UserTokenService.Purpose.RESET);
+
+        assertThat(userTokenService.isResettable("made-up")).isFalse();
+        assertThat(userTokenService.isResettable(verify)).isFalse();
+        assertThat(userTokenService.isResettable(reset)).isTrue();
+
+        jdbcTemplate.update("UPDATE user_tokens SET expires_at = ?", Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+        assertThat(userTokenService.isResettable(reset)).isFalse();
+    }
+
+    @Test
+    void newLinkReplacesThePreviousOne() {
+        String first = userTokenService.issue(userId, UserTokenService.Purpose.VERIFY);
+        String second = userTokenService.issue(userId, UserTokenService.Purpose.VERIFY);
+
+        assertThat(userTokenService.verifyEmail(first)).isEmpty();
+        assertThat(userTokenService.verifyEmail(second)).isPresent();
+    }
+
+    @Test
+    void bulkIssueReplacesEarlierLinksAndEachTokenRedeems() {
+        String earlier = userTokenService.issue(userId, UserTokenService.Purpose.VERIFY);
+
+        Map<Long, String> issued = userTokenService.issueAll(List.of(userId), UserTokenService.Purpose.VERIFY);
+
+        assertThat(issued).containsOnlyKeys(userId);
+        assertThat(userTokenService.verifyEmail(earlier)).isEmpty();
+        assertThat(userTokenService.verifyEmail(issued.get(userId))).isPresent();
+    }
+
+    @Test
+    void sweeperDeletesOnlyExpiredTokensAcrossBatches() {
+        Timestamp past = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO user_tokens (token_hash, user_id, purpose, created_at, expires_at) "
+                    + "VALUES (?, ?, 'VERIFY', ?, ?)", "expired-" + i, userId, past, past);
+        }
+        userTokenService.issue(userId, UserTokenService.Purpose.RESET);
+
+        userTokenService.deleteExpired();
+
+        assertThat(tokenCount()).isEqualTo(1);
+    }
+
+    private int tokenCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM user_tokens", Integer.class);
+    }
+
+    private <T> List<T> concurrently(Callable<T> request) throws Exception {
+        List<Callable<T>> requests = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            requests.add(request);
+        }
+        return run(requests);
+    }
+
+    // Releases every request at once so they contend for the same token row
+    private static <T> List<T> run(List<Callable<T>> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(requests.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> request : requests) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return request.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
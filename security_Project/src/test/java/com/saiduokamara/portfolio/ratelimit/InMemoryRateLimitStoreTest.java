@@ -0,0 +1,104 @@
+package com.saiduokamara.portfolio.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    // 6 per minute = one token every 10 seconds, 3 at once
+    private static final RateLimitPolicy POLICY = new RateLimitPolicy("test", 6, Duration.ofMinutes(1), 3);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(1000, Duration.ofHours(1), clock::get);
+
+    @Test
+    void allowsTheBurstThenRefusesWithTheTimeUntilTheNextToken() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryAcquire("ip:1", POLICY)).isZero();
+        }
+
+        assertThat(store.tryAcquire("ip:1", POLICY)).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertThat(store.tryAcquire("ip:1", POLICY)).isEqualTo(TimeUnit.SECONDS.toNanos(6));
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        for (int i = 0; i < 3; i++) {
+            store.tryAcquire("ip:1", POLICY);
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(store.tryAcquire("ip:1", POLICY)).isZero();
+        assertThat(store.tryAcquire("ip:1", POLICY)).isPositive();
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryAcquire("ip:1", POLICY)).isZero();
+        }
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        for (int i = 0; i < 3; i++) {
+            store.tryAcquire("ip:1", POLICY);
+        }
+
+        assertThat(store.tryAcquire("ip:1", POLICY)).isPositive();
+        assertThat(store.tryAcquire("ip:2", POLICY)).isZero();
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws Exception {
+        RateLimitPolicy policy = new RateLimitPolicy("concurrent", 50, Duration.ofHours(1), 50);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (store.tryAcquire("shared", policy) == 0) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(total).isEqualTo(50);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void boundsTheNumberOfKeys() {
+        InMemoryRateLimitStore small = new InMemoryRateLimitStore(100, Duration.ofHours(1), clock::get);
+        for (int i = 0; i < 10_000; i++) {
+            small.tryAcquire("ip:" + i, POLICY);
+        }
+        small.cleanUp();
+
+        assertThat(small.estimatedSize()).isLessThanOrEqualTo(100);
+    }
+}